@@ -0,0 +1,210 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.json;
+
+import javax.json.spi.JsonProvider;
+import java.util.Map;
+
+/**
+ * <p>This class is an immutable representation of a JSON Merge Patch as
+ * specified in <a href="http://tools.ietf.org/html/rfc7386">RFC 7386</a>.
+ * </p>
+ * <p>A JSON Merge Patch is a JSON value that describes the changes of a
+ * target: the members of a patch object replace the members of the target
+ * object with the same names, recursively for objects, and a {@code null}
+ * member removes the member of the target. Any other patch value replaces
+ * the whole target.
+ * </p>
+ *
+ * @since 1.1
+ */
+public final class JsonMergePatch {
+
+    private final JsonValue patch;
+
+    /**
+     * Construct and initialize a JsonMergePatch.
+     *
+     * @param patch the JSON Merge Patch
+     * @throws NullPointerException if {@code patch} is {@code null}
+     */
+    public JsonMergePatch(JsonValue patch) {
+        if (patch == null) {
+            throw new NullPointerException();
+        }
+        this.patch = patch;
+    }
+
+    /**
+     * Returns the JSON Merge Patch as a JSON value.
+     *
+     * @return the JSON value of this {@code JsonMergePatch}
+     */
+    public JsonValue toJsonValue() {
+        return patch;
+    }
+
+    /**
+     * Compares this {@code JsonMergePatch} with another object.
+     * @param obj the object to compare this {@code JsonMergePatch} against
+     * @return true if the given object is a {@code JsonMergePatch} with the
+     * same patch value as this one, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        return patch.equals(((JsonMergePatch) obj).patch);
+    }
+
+    /**
+     * Returns the hash code value for this {@code JsonMergePatch} object.
+     *
+     * @return the hash code value for this {@code JsonMergePatch} object
+     */
+    @Override
+    public int hashCode() {
+        return patch.hashCode();
+    }
+
+    /**
+     * Applies this patch to the specified {@code target}. The target is not
+     * modified, the objects on the paths of the patch members are copied,
+     * and the other values are shared with the result.
+     *
+     * @param target the target to be patched
+     * @return the transformed target after the patch is applied
+     * @throws NullPointerException if {@code target} is {@code null}
+     */
+    public JsonValue apply(JsonValue target) {
+        if (target == null) {
+            throw new NullPointerException();
+        }
+        return merge(target, patch);
+    }
+
+    private static JsonValue merge(JsonValue target, JsonValue patch) {
+        if (patch.getValueType() != JsonValue.ValueType.OBJECT) {
+            return patch;
+        }
+        JsonObject members = (JsonObject) patch;
+        if (members.isEmpty() && target.getValueType() == JsonValue.ValueType.OBJECT) {
+            return target;
+        }
+        JsonObject object = (target.getValueType() == JsonValue.ValueType.OBJECT)
+                ? (JsonObject) target : JsonValue.EMPTY_JSON_OBJECT;
+        JsonObjectBuilder builder = JsonProvider.provider().createObjectBuilder(object);
+        for (Map.Entry<String, JsonValue> member : members.entrySet()) {
+            String name = member.getKey();
+            JsonValue value = member.getValue();
+            if (value.getValueType() == JsonValue.ValueType.NULL) {
+                builder.remove(name);
+            } else {
+                JsonValue old = object.get(name);
+                builder.add(name, merge((old != null) ? old : JsonValue.EMPTY_JSON_OBJECT, value));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a JSON Merge Patch that transforms the {@code source} into the
+     * {@code target}. Only the members of the objects that are different
+     * are in the patch, and the equal values, that are often the same
+     * instances, are skipped. An array that is different is replaced as
+     * a whole, as a merge patch cannot describe the changes of an array.
+     *
+     * <p>As a {@code null} member of a patch removes a member, a member of
+     * the target with a {@code null} value cannot be described by a merge
+     * patch, it is removed when the patch is applied.</p>
+     *
+     * @param source the source
+     * @param target the target
+     * @return a JSON Merge Patch that transforms the source into the target
+     * @throws NullPointerException if {@code source} or {@code target} is {@code null}
+     */
+    public static JsonMergePatch diff(JsonValue source, JsonValue target) {
+        if (source == null || target == null) {
+            throw new NullPointerException();
+        }
+        JsonValue patch = diffValue(source, target);
+        if (patch == null) {
+            // An empty patch turns a non-object into {}, so the equal
+            // non-object target replaces the source instead
+            patch = (target.getValueType() == JsonValue.ValueType.OBJECT)
+                    ? JsonValue.EMPTY_JSON_OBJECT : target;
+        }
+        return new JsonMergePatch(patch);
+    }
+
+    // Returns null if the values are equal
+    private static JsonValue diffValue(JsonValue source, JsonValue target) {
+        if (source == target) {
+            return null;
+        }
+        if (source.getValueType() != JsonValue.ValueType.OBJECT
+                || target.getValueType() != JsonValue.ValueType.OBJECT) {
+            return source.equals(target) ? null : target;
+        }
+        JsonObject sourceObject = (JsonObject) source;
+        JsonObject targetObject = (JsonObject) target;
+        JsonObjectBuilder builder = null;
+        for (Map.Entry<String, JsonValue> member : sourceObject.entrySet()) {
+            String name = member.getKey();
+            JsonValue value = targetObject.get(name);
+            JsonValue patch = (value == null) ? JsonValue.NULL : diffValue(member.getValue(), value);
+            if (patch != null) {
+                builder = (builder != null) ? builder : JsonProvider.provider().createObjectBuilder();
+                builder.add(name, patch);
+            }
+        }
+        for (Map.Entry<String, JsonValue> member : targetObject.entrySet()) {
+            if (!sourceObject.containsKey(member.getKey())) {
+                builder = (builder != null) ? builder : JsonProvider.provider().createObjectBuilder();
+                builder.add(member.getKey(), member.getValue());
+            }
+        }
+        return (builder != null) ? builder.build() : null;
+    }
+
+}
@@ -0,0 +1,647 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.json;
+
+import javax.json.spi.JsonProvider;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>This class is an immutable representation of a JSON Patch as specified in
+ * <a href="http://tools.ietf.org/html/rfc6902">RFC 6902</a>.
+ * </p>
+ * <p>A JSON Patch is a JSON array of operations, each of them a JSON object
+ * with an {@code op} member of "add", "remove", "replace", "move", "copy"
+ * or "test", a {@code path} member with a JSON Pointer, and the
+ * {@code value} or {@code from} members of the operation.
+ * </p>
+ * <p>The method {@link #apply apply()} applies the operations in order,
+ * and returns the transformed target. The operations modify a working
+ * copy of the objects and arrays on their paths, which is created on the
+ * first operation that modifies them, and the other values are shared with
+ * the target. The result is then built with one copy of each modified
+ * object or array, instead of a copy of every object or array on the path
+ * for each operation, as with the {@link JsonPointer} operations.
+ * If an operation fails, the target is not modified, and a
+ * {@code JsonException} is thrown.
+ * </p>
+ *
+ * @since 1.1
+ */
+public final class JsonPatch {
+
+    /**
+     * The operations of a JSON Patch
+     */
+    private enum Operation {
+        ADD, REMOVE, REPLACE, MOVE, COPY, TEST;
+
+        static Operation fromName(String name) {
+            for (Operation op : values()) {
+                if (op.name().toLowerCase().equals(name)) {
+                    return op;
+                }
+            }
+            throw new JsonException("Illegal value for the op member of a JSON Patch operation: " + name);
+        }
+    }
+
+    private final JsonArray patch;
+    private final Operation[] ops;
+    private final JsonPointer[] paths;
+    private final JsonPointer[] froms;      // for move and copy
+    private final JsonValue[] values;       // for add, replace and test
+
+    /**
+     * Construct and initialize a JsonPatch.
+     *
+     * @param patch the JSON Patch, an array of operations
+     * @throws NullPointerException if {@code patch} is {@code null}
+     * @throws JsonException if an operation is not a valid JSON Patch operation
+     */
+    public JsonPatch(JsonArray patch) {
+        this.patch = patch;
+        int size = patch.size();
+        ops = new Operation[size];
+        paths = new JsonPointer[size];
+        froms = new JsonPointer[size];
+        values = new JsonValue[size];
+        for (int i = 0; i < size; i++) {
+            JsonValue operation = patch.get(i);
+            if (operation.getValueType() != JsonValue.ValueType.OBJECT) {
+                throw new JsonException("A JSON Patch operation must be a JSON object: " + operation);
+            }
+            JsonObject object = (JsonObject) operation;
+            ops[i] = Operation.fromName(((JsonString) getMember(object, "op",
+                    JsonValue.ValueType.STRING)).getString());
+            paths[i] = JsonPointer.compile(((JsonString) getMember(object, "path",
+                    JsonValue.ValueType.STRING)).getString());
+            switch (ops[i]) {
+                case ADD:
+                case REPLACE:
+                case TEST:
+                    values[i] = getMember(object, "value", null);
+                    break;
+                case MOVE:
+                case COPY:
+                    froms[i] = JsonPointer.compile(((JsonString) getMember(object, "from",
+                            JsonValue.ValueType.STRING)).getString());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static JsonValue getMember(JsonObject operation, String name, JsonValue.ValueType type) {
+        JsonValue value = operation.get(name);
+        if (value == null) {
+            throw new JsonException("The JSON Patch operation " + operation + " has no " + name + " member");
+        }
+        if (type != null && value.getValueType() != type) {
+            throw new JsonException("Illegal value for the " + name + " member of the JSON Patch operation "
+                    + operation);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the JSON Patch as a JSON array of operations.
+     *
+     * @return the JSON array of this {@code JsonPatch}
+     */
+    public JsonArray toJsonArray() {
+        return patch;
+    }
+
+    /**
+     * Compares this {@code JsonPatch} with another object.
+     * @param obj the object to compare this {@code JsonPatch} against
+     * @return true if the given object is a {@code JsonPatch} with the same
+     * operations as this one, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        return patch.equals(((JsonPatch) obj).patch);
+    }
+
+    /**
+     * Returns the hash code value for this {@code JsonPatch} object.
+     * The hash code of this object is defined by the hash code of its operations.
+     *
+     * @return the hash code value for this {@code JsonPatch} object
+     */
+    @Override
+    public int hashCode() {
+        return patch.hashCode();
+    }
+
+    /**
+     * Applies the operations of this patch to the specified {@code target}.
+     *
+     * @param target the target to be patched
+     * @return the transformed target after the operations are applied
+     * @throws NullPointerException if {@code target} is {@code null}
+     * @throws JsonException if an operation fails, for e.g. if a referenced
+     *     value does not exist, or if a test operation fails
+     */
+    public JsonStructure apply(JsonStructure target) {
+        if (target == null) {
+            throw new NullPointerException();
+        }
+        WorkingCopy copy = new WorkingCopy(target);
+        for (int i = 0; i < ops.length; i++) {
+            copy.apply(ops[i], paths[i], froms[i], values[i]);
+        }
+        JsonValue result = copy.build();
+        switch (result.getValueType()) {
+            case OBJECT:
+            case ARRAY:
+                return (JsonStructure) result;
+            default:
+                throw new JsonException("The result of a JSON Patch must be a JSON object or array");
+        }
+    }
+
+    /**
+     * Applies the operations of this patch to the specified {@code target}.
+     *
+     * @param target the target to be patched
+     * @return the transformed target after the operations are applied
+     * @throws NullPointerException if {@code target} is {@code null}
+     * @throws JsonException if an operation fails, or if the result is not
+     *     a JSON object
+     */
+    public JsonObject apply(JsonObject target) {
+        JsonStructure result = apply((JsonStructure) target);
+        if (result.getValueType() != JsonValue.ValueType.OBJECT) {
+            throw new JsonException("The result of the JSON Patch is not a JSON object");
+        }
+        return (JsonObject) result;
+    }
+
+    /**
+     * Applies the operations of this patch to the specified {@code target}.
+     *
+     * @param target the target to be patched
+     * @return the transformed target after the operations are applied
+     * @throws NullPointerException if {@code target} is {@code null}
+     * @throws JsonException if an operation fails, or if the result is not
+     *     a JSON array
+     */
+    public JsonArray apply(JsonArray target) {
+        JsonStructure result = apply((JsonStructure) target);
+        if (result.getValueType() != JsonValue.ValueType.ARRAY) {
+            throw new JsonException("The result of the JSON Patch is not a JSON array");
+        }
+        return (JsonArray) result;
+    }
+
+    /**
+     * Returns a JSON Patch that transforms the {@code source} into the
+     * {@code target}. The values are compared member by member and element
+     * by element, and the equal values, that are often the same instances,
+     * are not in the patch. The elements of a changed array are matched with
+     * a longest common subsequence, after the common prefix and suffix are
+     * removed, and a changed element is diffed in place.
+     *
+     * @param source the source
+     * @param target the target
+     * @return a JSON Patch that transforms the source into the target
+     * @throws NullPointerException if {@code source} or {@code target} is {@code null}
+     */
+    public static JsonPatch diff(JsonStructure source, JsonStructure target) {
+        JsonArrayBuilder patch = JsonProvider.provider().createArrayBuilder();
+        new Differ(patch).diff("", source, target);
+        return new JsonPatch(patch.build());
+    }
+
+    /**
+     * Computes the operations of a diff
+     */
+    private static final class Differ {
+        // Larger arrays are replaced element by element, without LCS
+        private static final long MAX_LCS_CELLS = 1L << 22;
+
+        private final JsonArrayBuilder patch;
+
+        Differ(JsonArrayBuilder patch) {
+            this.patch = patch;
+        }
+
+        void diff(String path, JsonValue source, JsonValue target) {
+            if (source == target) {
+                return;
+            }
+            JsonValue.ValueType type = source.getValueType();
+            if (type != target.getValueType()) {
+                replace(path, target);
+            } else if (type == JsonValue.ValueType.OBJECT) {
+                diffObject(path, (JsonObject) source, (JsonObject) target);
+            } else if (type == JsonValue.ValueType.ARRAY) {
+                diffArray(path, (JsonArray) source, (JsonArray) target);
+            } else if (!source.equals(target)) {
+                replace(path, target);
+            }
+        }
+
+        private void diffObject(String path, JsonObject source, JsonObject target) {
+            for (Map.Entry<String, JsonValue> member : source.entrySet()) {
+                String name = member.getKey();
+                JsonValue value = target.get(name);
+                if (value == null) {
+                    patch.add(operation("remove", path(path, name)));
+                } else {
+                    diff(path(path, name), member.getValue(), value);
+                }
+            }
+            for (Map.Entry<String, JsonValue> member : target.entrySet()) {
+                if (!source.containsKey(member.getKey())) {
+                    patch.add(operation("add", path(path, member.getKey()))
+                            .add("value", member.getValue()));
+                }
+            }
+        }
+
+        private void diffArray(String path, JsonArray source, JsonArray target) {
+            int m = source.size();
+            int n = target.size();
+            // common prefix and suffix
+            int begin = 0;
+            while (begin < m && begin < n && equal(source.get(begin), target.get(begin))) {
+                begin++;
+            }
+            int sourceEnd = m;
+            int targetEnd = n;
+            while (sourceEnd > begin && targetEnd > begin
+                    && equal(source.get(sourceEnd - 1), target.get(targetEnd - 1))) {
+                sourceEnd--;
+                targetEnd--;
+            }
+            int sm = sourceEnd - begin;
+            int tn = targetEnd - begin;
+            if ((long) sm * tn > MAX_LCS_CELLS) {
+                diffElements(path, source, target, begin, sourceEnd, targetEnd);
+                return;
+            }
+
+            // hash codes of the elements, computed once for the comparisons
+            int[] sourceHashes = new int[sm];
+            for (int i = 0; i < sm; i++) {
+                sourceHashes[i] = source.get(begin + i).hashCode();
+            }
+            int[] targetHashes = new int[tn];
+            for (int j = 0; j < tn; j++) {
+                targetHashes[j] = target.get(begin + j).hashCode();
+            }
+            // lcs[i][j] is the length of the LCS of the elements from i and j
+            int[][] lcs = new int[sm + 1][tn + 1];
+            for (int i = sm - 1; i >= 0; i--) {
+                for (int j = tn - 1; j >= 0; j--) {
+                    lcs[i][j] = (sourceHashes[i] == targetHashes[j]
+                            && source.get(begin + i).equals(target.get(begin + j)))
+                            ? lcs[i + 1][j + 1] + 1
+                            : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+                }
+            }
+
+            int i = 0;
+            int j = 0;
+            int index = begin;          // index in the patched array
+            while (i < sm || j < tn) {
+                if (i < sm && j < tn && sourceHashes[i] == targetHashes[j]
+                        && lcs[i][j] == lcs[i + 1][j + 1] + 1
+                        && source.get(begin + i).equals(target.get(begin + j))) {
+                    i++;
+                    j++;
+                    index++;
+                } else if (i < sm && j < tn && lcs[i][j] == lcs[i + 1][j + 1]) {
+                    // a changed element
+                    diff(path + "/" + index, source.get(begin + i), target.get(begin + j));
+                    i++;
+                    j++;
+                    index++;
+                } else if (j < tn && (i == sm || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                    patch.add(operation("add", path + "/" + index).add("value", target.get(begin + j)));
+                    j++;
+                    index++;
+                } else {
+                    patch.add(operation("remove", path + "/" + index));
+                    i++;
+                }
+            }
+        }
+
+        // Diffs the elements at the same positions, without LCS
+        private void diffElements(String path, JsonArray source, JsonArray target,
+                int begin, int sourceEnd, int targetEnd) {
+            int i = begin;
+            for (; i < sourceEnd && i < targetEnd; i++) {
+                diff(path + "/" + i, source.get(i), target.get(i));
+            }
+            for (int j = sourceEnd - 1; j >= i; j--) {
+                patch.add(operation("remove", path + "/" + j));
+            }
+            for (; i < targetEnd; i++) {
+                patch.add(operation("add", path + "/" + i).add("value", target.get(i)));
+            }
+        }
+
+        private static boolean equal(JsonValue v1, JsonValue v2) {
+            return v1 == v2 || v1.equals(v2);
+        }
+
+        private void replace(String path, JsonValue value) {
+            patch.add(operation("replace", path).add("value", value));
+        }
+
+        private static JsonObjectBuilder operation(String op, String path) {
+            return JsonProvider.provider().createObjectBuilder().add("op", op).add("path", path);
+        }
+
+        private static String path(String path, String name) {
+            return path + "/" + name.replace("~", "~0").replace("/", "~1");
+        }
+    }
+
+    /**
+     * The document being patched. The objects and arrays that are modified
+     * are replaced by a mutable ObjectNode or ArrayNode, that has the
+     * immutable values or the other nodes. The nodes are turned into JSON
+     * values once, at the end.
+     */
+    private static final class WorkingCopy {
+        private Object root;
+
+        WorkingCopy(JsonStructure target) {
+            this.root = target;
+        }
+
+        void apply(Operation op, JsonPointer path, JsonPointer from, JsonValue value) {
+            switch (op) {
+                case ADD:
+                    add(path, value);
+                    break;
+                case REMOVE:
+                    remove(path);
+                    break;
+                case REPLACE:
+                    replace(path, value);
+                    break;
+                case MOVE:
+                    if (isProperPrefix(from, path)) {
+                        throw new JsonException("The from path " + from + " of a move operation "
+                                + "must not be a prefix of the path " + path);
+                    }
+                    add(path, remove(from));
+                    break;
+                case COPY:
+                    add(path, build(get(from)));
+                    break;
+                case TEST:
+                    if (!build(get(path)).equals(value)) {
+                        throw new JsonException("The value at " + path + " is not equal to " + value);
+                    }
+                    break;
+            }
+        }
+
+        private static boolean isProperPrefix(JsonPointer prefix, JsonPointer pointer) {
+            int n = prefix.getTokenCount();
+            if (n >= pointer.getTokenCount()) {
+                return false;
+            }
+            for (int i = 1; i < n; i++) {
+                if (!prefix.getToken(i).equals(pointer.getToken(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Adds the value, that is a JsonValue or a node
+        private void add(JsonPointer path, Object value) {
+            int last = path.getTokenCount() - 1;
+            if (last == 0) {
+                root = value;
+                return;
+            }
+            Object parent = parent(path);
+            if (parent instanceof ObjectNode) {
+                ((ObjectNode) parent).members.put(path.getToken(last), value);
+            } else {
+                List<Object> list = ((ArrayNode) parent).values;
+                int index = path.getArrayIndex(last);
+                if (index == -1) {
+                    list.add(value);
+                } else if (index >= 0 && index <= list.size()) {
+                    list.add(index, value);
+                } else {
+                    throw new JsonException("An array item index is out of range. Index: "
+                            + index + ", Size: " + list.size());
+                }
+            }
+        }
+
+        // Replaces the referenced value, keeping its position
+        private void replace(JsonPointer path, JsonValue value) {
+            int last = path.getTokenCount() - 1;
+            if (last == 0) {
+                root = value;
+                return;
+            }
+            Object parent = parent(path);
+            if (parent instanceof ObjectNode) {
+                Map<String, Object> members = ((ObjectNode) parent).members;
+                String name = path.getToken(last);
+                if (!members.containsKey(name)) {
+                    throw new JsonException("The JSON object contains no mapping for the name " + name
+                            + " in the path " + path);
+                }
+                members.put(name, value);
+            } else {
+                List<Object> list = ((ArrayNode) parent).values;
+                list.set(checkIndex(path.getArrayIndex(last), list.size()), value);
+            }
+        }
+
+        private static int checkIndex(int index, int size) {
+            if (index < 0 || index >= size) {
+                throw new JsonException("An array item index is out of range. Index: "
+                        + index + ", Size: " + size);
+            }
+            return index;
+        }
+
+        // Removes the referenced value, and returns it
+        private Object remove(JsonPointer path) {
+            int last = path.getTokenCount() - 1;
+            if (last == 0) {
+                throw new JsonException("The JSON value at the root cannot be removed");
+            }
+            Object parent = parent(path);
+            if (parent instanceof ObjectNode) {
+                Map<String, Object> members = ((ObjectNode) parent).members;
+                String name = path.getToken(last);
+                if (!members.containsKey(name)) {
+                    throw new JsonException("The JSON object contains no mapping for the name " + name
+                            + " in the path " + path);
+                }
+                return members.remove(name);
+            }
+            List<Object> list = ((ArrayNode) parent).values;
+            return list.remove(checkIndex(path.getArrayIndex(last), list.size()));
+        }
+
+        // Returns the referenced value, without modifying the document
+        private Object get(JsonPointer path) {
+            Object node = root;
+            for (int i = 1; i < path.getTokenCount(); i++) {
+                node = child(node, path, i);
+            }
+            return node;
+        }
+
+        // Returns the mutable node of the parent of the referenced value
+        private Object parent(JsonPointer path) {
+            root = mutable(root);
+            Object node = root;
+            for (int i = 1; i < path.getTokenCount() - 1; i++) {
+                Object child = mutable(child(node, path, i));
+                if (node instanceof ObjectNode) {
+                    ((ObjectNode) node).members.put(path.getToken(i), child);
+                } else {
+                    ((ArrayNode) node).values.set(path.getArrayIndex(i), child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private static Object child(Object node, JsonPointer path, int i) {
+            Object child;
+            if (node instanceof ObjectNode) {
+                child = ((ObjectNode) node).members.get(path.getToken(i));
+            } else if (node instanceof ArrayNode) {
+                List<Object> list = ((ArrayNode) node).values;
+                int index = path.getArrayIndex(i);
+                child = (index >= 0 && index < list.size()) ? list.get(index) : null;
+            } else {
+                JsonValue value = (JsonValue) node;
+                switch (value.getValueType()) {
+                    case OBJECT:
+                        child = ((JsonObject) value).get(path.getToken(i));
+                        break;
+                    case ARRAY:
+                        JsonArray array = (JsonArray) value;
+                        int index = path.getArrayIndex(i);
+                        child = (index >= 0 && index < array.size()) ? array.get(index) : null;
+                        break;
+                    default:
+                        throw new JsonException("The reference value in a Json pointer must be a Json object or a Json array");
+                }
+            }
+            if (child == null) {
+                throw new JsonException("The JSON value at " + path + " does not exist");
+            }
+            return child;
+        }
+
+        private static Object mutable(Object node) {
+            if (node instanceof JsonValue) {
+                JsonValue value = (JsonValue) node;
+                switch (value.getValueType()) {
+                    case OBJECT:
+                        return new ObjectNode((JsonObject) value);
+                    case ARRAY:
+                        return new ArrayNode((JsonArray) value);
+                    default:
+                        throw new JsonException("The reference value in a Json pointer must be a Json object or a Json array");
+                }
+            }
+            return node;
+        }
+
+        JsonValue build() {
+            return build(root);
+        }
+
+        private static JsonValue build(Object node) {
+            if (node instanceof ObjectNode) {
+                JsonObjectBuilder builder = JsonProvider.provider().createObjectBuilder();
+                for (Map.Entry<String, Object> member : ((ObjectNode) node).members.entrySet()) {
+                    builder.add(member.getKey(), build(member.getValue()));
+                }
+                return builder.build();
+            } else if (node instanceof ArrayNode) {
+                JsonArrayBuilder builder = JsonProvider.provider().createArrayBuilder();
+                for (Object value : ((ArrayNode) node).values) {
+                    builder.add(build(value));
+                }
+                return builder.build();
+            }
+            return (JsonValue) node;
+        }
+    }
+
+    private static final class ObjectNode {
+        final Map<String, Object> members;
+
+        ObjectNode(JsonObject object) {
+            members = new LinkedHashMap<>(object);
+        }
+    }
+
+    private static final class ArrayNode {
+        final List<Object> values;
+
+        ArrayNode(JsonArray array) {
+            values = new ArrayList<>(array);
+        }
+    }
+
+}
@@ -62,11 +62,23 @@ package javax.json;
  * @since 1.1
  */
 
+import javax.json.stream.JsonParser;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 public final class JsonPointer {
 
+    // Bound of the compile() cache, it is cleared when it gets full
+    private static final int CACHE_SIZE = 1024;
+    private static final Map<String, JsonPointer> cache = new ConcurrentHashMap<>();
+
+    // Marks a token that is not a plain array index in indexes
+    private static final int NOT_AN_INDEX = -2;
+
     private final String[] tokens;
+    // Array index of each token, -1 for "-", parsed once for evaluations
+    private final int[] indexes;
     private final String jsonPointer;
 
     /**
@@ -98,6 +110,34 @@ public final class JsonPointer {
             }
             tokens[i] = reftoken.toString();
         }
+        indexes = new int[tokens.length];
+        for (int i = 1; i < tokens.length; i++) {
+            indexes[i] = parseIndex(tokens[i]);
+        }
+    }
+
+    /**
+     * Returns a {@code JsonPointer} for the JSON Pointer string. The
+     * pointers are cached, so that the same instance is returned for a
+     * frequently used string, and the string is parsed only once. It is
+     * safe to call this method from multiple threads.
+     *
+     * @param jsonPointer the JSON Pointer string
+     * @return the {@code JsonPointer} for the string
+     * @throws NullPointerException if {@code jsonPointer} is {@code null}
+     * @throws JsonException if {@code jsonPointer} is not a valid JSON Pointer
+     * @since 1.1
+     */
+    public static JsonPointer compile(String jsonPointer) {
+        JsonPointer pointer = cache.get(jsonPointer);
+        if (pointer == null) {
+            pointer = new JsonPointer(jsonPointer);
+            if (cache.size() >= CACHE_SIZE) {
+                cache.clear();
+            }
+            cache.put(jsonPointer, pointer);
+        }
+        return pointer;
     }
 
     /**
@@ -138,6 +178,16 @@ public final class JsonPointer {
         return result;
     }
 
+    /**
+     * Returns the JSON Pointer string of this {@code JsonPointer}.
+     *
+     * @return the JSON Pointer string
+     */
+    @Override
+    public String toString() {
+        return jsonPointer;
+    }
+
     /**
      * Return the value at the referenced location in the specified {@code target}
      *
@@ -149,8 +199,29 @@ public final class JsonPointer {
      */
     public JsonValue getValue(JsonValue target) {
         if(target instanceof JsonStructure) {
-            NodeReference[] refs = getReferences((JsonStructure)target);
-            JsonValue value = refs[0].get();
+            // Walks the path as getReferences(), without the references
+            JsonValue value = target;
+            int s = tokens.length;
+            for (int i = 1; i < s; i++) {
+                switch (value.getValueType()) {
+                    case OBJECT:
+                        JsonObject object = (JsonObject) value;
+                        value = object.get(tokens[i]);
+                        if (value == null && i < s-1) {
+                            throw new JsonException("The JSON object " + object + " contains no mapping "
+                                    + " for the name " + tokens[i]);
+                        }
+                        break;
+                    case ARRAY:
+                        int index = getIndex(i);
+                        if (i == s-1 || index != -1) {
+                            value = ((JsonArray) value).get(index);
+                        }
+                        break;
+                    default:
+                        throw new JsonException("The reference value in a Json pointer must be a Json object or a Json array");
+                }
+            }
             //value does not exists
             if(value != null) {
                 return value;
@@ -163,6 +234,174 @@ public final class JsonPointer {
         }
     }
 
+    /**
+     * Return the value at the referenced location in the JSON text of the
+     * specified {@code parser}, without building the other values.
+     * The parser must be positioned before the JSON text; see
+     * {@link #getValues(JsonParser, JsonPointer...)}.
+     *
+     * @param parser the parser of the JSON text referenced by this {@code JsonPointer}
+     * @return the referenced value in the JSON text.
+     * @throws NullPointerException if {@code parser} is {@code null}
+     * @throws JsonException if the referenced value does not exist
+     * @throws javax.json.stream.JsonParsingException if the JSON text is
+     *     not valid
+     * @since 1.1
+     */
+    public JsonValue getValue(JsonParser parser) {
+        JsonValue value = getValues(parser, this)[0];
+        if (value == null) {
+            throw new JsonException("The JSON text contains no mapping for pointer " + jsonPointer);
+        }
+        return value;
+    }
+
+    /**
+     * Return the values at the referenced locations in the JSON text of the
+     * specified {@code parser}, without building the other values. The
+     * parser must be positioned before the JSON text, and it reads the text
+     * only until all the values are found.
+     *
+     * <p>The values of the names and array indexes that are not on the path
+     * of any pointer are skipped, and only the referenced values are built.
+     * If an object has a repeated name, the first value is used.</p>
+     *
+     * @param parser the parser of the JSON text referenced by the pointers
+     * @param pointers the pointers
+     * @return the referenced values, in the order of the pointers. An
+     *     element is {@code null} if the referenced value does not exist.
+     * @throws NullPointerException if {@code parser} or a pointer is {@code null}
+     * @throws javax.json.stream.JsonParsingException if the JSON text is
+     *     not valid
+     * @since 1.1
+     */
+    public static JsonValue[] getValues(JsonParser parser, JsonPointer... pointers) {
+        JsonValue[] values = new JsonValue[pointers.length];
+        if (pointers.length == 0 || !parser.hasNext()) {
+            return values;
+        }
+        int[] candidates = new int[pointers.length];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i;
+        }
+        new StreamMatcher(parser, pointers, values).match(
+                parser.next(), candidates, candidates.length, 0);
+        return values;
+    }
+
+    /**
+     * Return the value at the tokens from position {@code from} in the
+     * specified {@code value}, or null if it does not exist
+     */
+    private JsonValue find(JsonValue value, int from) {
+        for (int i = from; i < tokens.length && value != null; i++) {
+            switch (value.getValueType()) {
+                case OBJECT:
+                    value = ((JsonObject) value).get(tokens[i]);
+                    break;
+                case ARRAY:
+                    JsonArray array = (JsonArray) value;
+                    int index = indexes[i];
+                    value = (index >= 0 && index < array.size()) ? array.get(index) : null;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Matches the paths of the values in the parser's events with the
+     * tokens of the pointers
+     */
+    private static final class StreamMatcher {
+        private final JsonParser parser;
+        private final JsonPointer[] pointers;
+        private final JsonValue[] values;
+        private final boolean[] done;
+        private int remaining;
+
+        StreamMatcher(JsonParser parser, JsonPointer[] pointers, JsonValue[] values) {
+            this.parser = parser;
+            this.pointers = pointers;
+            this.values = values;
+            this.done = new boolean[pointers.length];
+            this.remaining = pointers.length;
+        }
+
+        /**
+         * The parser is at the first event of a value whose path matches the
+         * first depth tokens of the candidate pointers. Returns false when
+         * all the pointers are done, and the parser is left there.
+         */
+        boolean match(JsonParser.Event event, int[] candidates, int n, int depth) {
+            boolean ends = false;
+            for (int i = 0; i < n; i++) {
+                ends |= pointers[candidates[i]].tokens.length == depth + 1;
+            }
+            if (ends) {
+                // the value is built, and the longer pointers are found in it
+                JsonValue value = parser.getValue();
+                for (int i = 0; i < n; i++) {
+                    JsonPointer pointer = pointers[candidates[i]];
+                    values[candidates[i]] = (pointer.tokens.length == depth + 1)
+                            ? value : pointer.find(value, depth + 1);
+                    done[candidates[i]] = true;
+                }
+                return (remaining -= n) > 0;
+            }
+            int[] next = new int[n];
+            switch (event) {
+                case START_OBJECT:
+                    while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+                        String name = parser.getString();
+                        int m = 0;
+                        for (int i = 0; i < n; i++) {
+                            int c = candidates[i];
+                            if (!done[c] && pointers[c].tokens[depth + 1].equals(name)) {
+                                next[m++] = c;
+                            }
+                        }
+                        if (!value(parser.next(), next, m, depth + 1)) {
+                            return false;
+                        }
+                    }
+                    break;
+                case START_ARRAY:
+                    for (int index = 0; (event = parser.next()) != JsonParser.Event.END_ARRAY; index++) {
+                        int m = 0;
+                        for (int i = 0; i < n; i++) {
+                            int c = candidates[i];
+                            if (!done[c] && pointers[c].indexes[depth + 1] == index) {
+                                next[m++] = c;
+                            }
+                        }
+                        if (!value(event, next, m, depth + 1)) {
+                            return false;
+                        }
+                    }
+                    break;
+                default:
+                    // the paths don't exist
+                    break;
+            }
+            return true;
+        }
+
+        private boolean value(JsonParser.Event event, int[] candidates, int n, int depth) {
+            if (n > 0) {
+                return match(event, candidates, n, depth);
+            }
+            if (event == JsonParser.Event.START_OBJECT) {
+                parser.skipObject();
+            } else if (event == JsonParser.Event.START_ARRAY) {
+                parser.skipArray();
+            }
+            return true;
+        }
+    }
+
     /**
      * Add or replace a value at the referenced location in the specified
      * {@code target} with the specified {@code value}.
@@ -402,7 +641,7 @@ public final class JsonPointer {
                     }
                     break;
                 case ARRAY:
-                    int index = getIndex(tokens[i]);
+                    int index = getIndex(i);
                     JsonArray array = (JsonArray) value;
                     references[s-i-1] = NodeReference.of(array, index);
                     if (i < s-1 && index != -1) {
@@ -418,6 +657,67 @@ public final class JsonPointer {
         return references;
     }
 
+    /**
+     * Returns the number of tokens, including the "" token before the first '/'
+     */
+    int getTokenCount() {
+        return tokens.length;
+    }
+
+    /**
+     * Returns the token at position i
+     */
+    String getToken(int i) {
+        return tokens[i];
+    }
+
+    /**
+     * Returns the array index of the token at position i
+     */
+    int getIndex(int i) {
+        int index = indexes[i];
+        // the other tokens give the error, or an unusual index
+        return (index != NOT_AN_INDEX) ? index : getIndex(tokens[i]);
+    }
+
+    /**
+     * Returns the array index of the token at position i, as RFC 6901
+     * defines it: "-" or digits without leading zeros
+     * @return the array index. -1 if the token is "-"
+     * @throws JsonException if the token is not an array index
+     */
+    int getArrayIndex(int i) {
+        int index = indexes[i];
+        if (index == NOT_AN_INDEX) {
+            throw new JsonException("Array index format error: " + tokens[i]);
+        }
+        return index;
+    }
+
+    /**
+     * Parse the plain array index, without leading zeros
+     * @param token the input string token
+     * @return the array index. -1 if the token is "-", NOT_AN_INDEX otherwise
+     */
+    static private int parseIndex(String token) {
+        if (token.equals("-")) {
+            return -1;
+        }
+        int len = token.length();
+        if (len == 0 || len > 9 || (token.charAt(0) == '0' && len > 1)) {
+            return NOT_AN_INDEX;
+        }
+        int index = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = token.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return NOT_AN_INDEX;
+            }
+            index = 10 * index + (ch - '0');
+        }
+        return index;
+    }
+
     /**
      * Compute the array index
      * @param token the input string token
@@ -49,9 +49,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
 
 /**
  * Service provider for JSON processing objects.
@@ -71,13 +74,38 @@ public abstract class JsonProvider {
      */
     private static final String DEFAULT_PROVIDER
             = "org.glassfish.json.JsonProviderImpl";
-    private static final ThreadLocal<ServiceLoader<JsonProvider>> threadLoader =
-        new ThreadLocal<ServiceLoader<JsonProvider>>() {
-            @Override
-            protected ServiceLoader<JsonProvider> initialValue() {
-                return ServiceLoader.load(JsonProvider.class);
-            }
-        };
+
+    // Resolved providers keyed by the context class loader. Values are
+    // soft references so that a cached provider doesn't keep its class
+    // loader (the weak key) reachable indefinitely.
+    private static final Map<ClassLoader, SoftReference<JsonProvider>> cache
+            = new WeakHashMap<>();
+
+    // Incremented by clearCache(), under the cache lock. A provider that is
+    // resolved before a clearCache() is not cached after it
+    private static volatile int generation;
+
+    // Most recently resolved provider, to avoid synchronization when the
+    // same context class loader is used repeatedly
+    private static volatile CacheEntry lastEntry;
+
+    private static final class CacheEntry {
+        final WeakReference<ClassLoader> loader;    // null for a null loader
+        final SoftReference<JsonProvider> provider;
+        final int generation;
+
+        CacheEntry(ClassLoader loader, SoftReference<JsonProvider> provider, int generation) {
+            this.loader = (loader == null) ? null : new WeakReference<>(loader);
+            this.provider = provider;
+            this.generation = generation;
+        }
+
+        // A collected loader is not taken for a null loader
+        boolean isFor(ClassLoader loader) {
+            return (loader == null) ? this.loader == null
+                    : this.loader != null && this.loader.get() == loader;
+        }
+    }
 
     //Lazy initialization holder class idiom
     private static class JsonProviderHolder {
@@ -107,11 +135,50 @@ public abstract class JsonProvider {
      * {@link ServiceLoader#load(Class)} method. If there are no available
      * service providers, this method returns the default service provider.
      *
+     * <p>
+     * The resolved provider is cached per context class loader, so the
+     * service providers are looked up only once for a class loader.
+     * {@link #clearCache()} may be used to discard the cached providers,
+     * for e.g. when service providers are added or removed.
+     *
      * @see ServiceLoader
      * @return a JSON provider
      */
     public static JsonProvider provider() {
-        Iterator<JsonProvider> it = threadLoader.get().iterator();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        CacheEntry entry = lastEntry;
+        if (entry != null && entry.generation == generation && entry.isFor(loader)) {
+            JsonProvider provider = entry.provider.get();
+            if (provider != null) {
+                return provider;
+            }
+        }
+
+        SoftReference<JsonProvider> ref;
+        int gen;
+        synchronized (cache) {
+            gen = generation;
+            ref = cache.get(loader);
+        }
+        JsonProvider provider = (ref != null) ? ref.get() : null;
+        if (provider == null) {
+            provider = loadProvider(loader);
+            ref = new SoftReference<>(provider);
+            synchronized (cache) {
+                if (gen != generation) {
+                    // the cache is cleared while the provider is loaded
+                    return provider;
+                }
+                cache.put(loader, ref);
+            }
+        }
+        // An entry of an older generation is not used by the fast path
+        lastEntry = new CacheEntry(loader, ref, gen);
+        return provider;
+    }
+
+    private static JsonProvider loadProvider(ClassLoader loader) {
+        Iterator<JsonProvider> it = ServiceLoader.load(JsonProvider.class, loader).iterator();
         if (it.hasNext()) {
             return it.next();
         }
@@ -119,6 +186,36 @@ public abstract class JsonProvider {
         return JsonProviderHolder.defaultJsonProvider;
     }
 
+    /**
+     * Removes all the cached providers, so that the next {@link #provider()}
+     * call looks up the service providers again.
+     *
+     * @since 1.1
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+            generation++;
+        }
+        lastEntry = null;
+    }
+
+    /**
+     * Removes the cached provider for the given class loader, so that
+     * the next {@link #provider()} call with that context class loader
+     * looks up the service providers again.
+     *
+     * @param loader the context class loader whose provider is removed
+     * @since 1.1
+     */
+    public static void clearCache(ClassLoader loader) {
+        synchronized (cache) {
+            cache.remove(loader);
+            generation++;
+        }
+        lastEntry = null;
+    }
+
     /**
      * Creates a JSON parser from a character stream.
      *
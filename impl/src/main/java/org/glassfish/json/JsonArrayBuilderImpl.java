@@ -41,9 +41,11 @@
 package org.glassfish.json;
 
 import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonNumberArray;
 
 import javax.json.*;
 import java.io.StringWriter;
+import java.lang.ref.SoftReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.AbstractList;
@@ -59,7 +61,13 @@ import java.util.List;
  */
 
 class JsonArrayBuilderImpl implements JsonArrayBuilder {
+    // A builder from an array of at least this size updates a persistent
+    // list, instead of a copy of all the values
+    private static final int MIN_PERSISTENT_SIZE = 32;
+
     private ArrayList<JsonValue> valueList;
+    // Used instead of valueList, when the builder is from a large array
+    private JsonPersistentList persistent;
     private final BufferPool bufferPool;
 
     JsonArrayBuilderImpl(BufferPool bufferPool) {
@@ -68,8 +76,14 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
 
     JsonArrayBuilderImpl(JsonArray array, BufferPool bufferPool) {
         this.bufferPool = bufferPool;
-        valueList = new ArrayList<>();
-        valueList.addAll(array);
+        List<JsonValue> list = (array instanceof JsonArrayImpl)
+                ? ((JsonArrayImpl)array).valueList : array;
+        if (list instanceof JsonPersistentList || list.size() >= MIN_PERSISTENT_SIZE) {
+            persistent = JsonPersistentList.of(list);
+        } else {
+            valueList = new ArrayList<>();
+            valueList.addAll(array);
+        }
     }
 
     @Override
@@ -153,10 +167,17 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
         if (builder == null) {
             throw new NullPointerException(JsonMessages.ARRBUILDER_ARRAY_BUILDER_NULL());
         }
+        JsonArray array = builder.build();
+        if (persistent != null) {
+            for (JsonValue value : array) {
+                persistent = persistent.withAdded(persistent.size(), value);
+            }
+            return this;
+        }
         if (valueList == null) {
             valueList = new ArrayList<>();
         }
-        valueList.addAll(builder.build());
+        valueList.addAll(array);
         return this;
     }
 
@@ -314,6 +335,10 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
 
     @Override
     public JsonArrayBuilder remove(int index) {
+        if (persistent != null) {
+            persistent = persistent.without(index);
+            return this;
+        }
         if (valueList == null) {
             throw new IndexOutOfBoundsException();
         }
@@ -324,18 +349,29 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
     @Override
     public JsonArray build() {
         List<JsonValue> snapshot;
-        if (valueList == null) {
+        if (persistent != null) {
+            snapshot = persistent;
+            persistent = null;
+        } else if (valueList == null) {
             snapshot = Collections.emptyList();
         } else {
-            // Should we trim to minimize storage ?
-            // valueList.trimToSize();
-            snapshot = Collections.unmodifiableList(valueList);
+            // numbers are kept in a primitive array
+            snapshot = JsonNumberList.of(valueList);
+            if (snapshot == null) {
+                // Should we trim to minimize storage ?
+                // valueList.trimToSize();
+                snapshot = Collections.unmodifiableList(valueList);
+            }
         }
         valueList = null;
         return new JsonArrayImpl(snapshot, bufferPool);
     }
 
     private void addValueList(JsonValue value) {
+        if (persistent != null) {
+            persistent = persistent.withAdded(persistent.size(), value);
+            return;
+        }
         if (valueList == null) {
             valueList = new ArrayList<>();
         }
@@ -343,6 +379,10 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
     }
 
     private void addValueList(int index, JsonValue value) {
+        if (persistent != null) {
+            persistent = persistent.withAdded(index, value);
+            return;
+        }
         if (valueList == null) {
             valueList = new ArrayList<>();
         }
@@ -350,6 +390,10 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
     }
 
     private void setValueList(int index, JsonValue value) {
+        if (persistent != null) {
+            persistent = persistent.with(index, value);
+            return;
+        }
         if (valueList == null) {
             throw new IndexOutOfBoundsException();
         }
@@ -362,9 +406,14 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
         }
     }
 
-    private static final class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray {
-        private final List<JsonValue> valueList;    // Unmodifiable
+    static final class JsonArrayImpl extends AbstractList<JsonValue>
+            implements JsonNumberArray, JsonSerializedText {
+        // Unmodifiable, may be a JsonNumberList or JsonPersistentList
+        private final List<JsonValue> valueList;
         private final BufferPool bufferPool;
+        private int hash;       // cached hashCode(), 0 if not computed
+        // text kept by a generator, released under memory pressure
+        private SoftReference<String> text;
 
         JsonArrayImpl(List<JsonValue> valueList, BufferPool bufferPool) {
             this.valueList = valueList;
@@ -402,6 +451,42 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
             return (List<T>)valueList;
         }
 
+        @Override
+        public int[] toIntArray() {
+            if (valueList instanceof JsonNumberList) {
+                return ((JsonNumberList)valueList).toIntArray();
+            }
+            int[] result = new int[valueList.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = getJsonNumber(i).intValue();
+            }
+            return result;
+        }
+
+        @Override
+        public long[] toLongArray() {
+            if (valueList instanceof JsonNumberList) {
+                return ((JsonNumberList)valueList).toLongArray();
+            }
+            long[] result = new long[valueList.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = getJsonNumber(i).longValue();
+            }
+            return result;
+        }
+
+        @Override
+        public double[] toDoubleArray() {
+            if (valueList instanceof JsonNumberList) {
+                return ((JsonNumberList)valueList).toDoubleArray();
+            }
+            double[] result = new double[valueList.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = getJsonNumber(i).doubleValue();
+            }
+            return result;
+        }
+
         @Override
         public String getString(int index) {
             return getJsonString(index).getString();
@@ -466,13 +551,55 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder {
             return valueList.get(index);
         }
 
+        @Override
+        public int hashCode() {
+            // the array is immutable, at the most it is computed again
+            int h = hash;
+            if (h == 0) {
+                h = valueList.hashCode();
+                hash = h;
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof JsonArrayImpl) {
+                // the hash codes are cached, and differ for most unequal arrays
+                JsonArrayImpl other = (JsonArrayImpl)obj;
+                if (other.size() != size() || other.hashCode() != hashCode()) {
+                    return false;
+                }
+                return valueList.equals(other.valueList);
+            }
+            return super.equals(obj);
+        }
+
         @Override
         public String toString() {
-            StringWriter sw = new StringWriter();
-            try (JsonWriter jw = new JsonWriterImpl(sw, bufferPool)) {
-                jw.write(this);
+            String str = getSerializedText();
+            if (str == null) {
+                StringWriter sw = new StringWriter();
+                try (JsonWriter jw = new JsonWriterImpl(sw, bufferPool)) {
+                    jw.write(this);
+                }
+                str = sw.toString();
             }
-            return sw.toString();
+            return str;
+        }
+
+        @Override
+        public String getSerializedText() {
+            SoftReference<String> ref = text;
+            return ref == null ? null : ref.get();
+        }
+
+        @Override
+        public void setSerializedText(String str) {
+            text = new SoftReference<>(str);
         }
 
         @Override
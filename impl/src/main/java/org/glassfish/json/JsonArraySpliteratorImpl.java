@@ -0,0 +1,334 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.json;
+
+import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonArraySpliterator;
+
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * {@link JsonArraySpliterator} implementation.
+ *
+ * <p>
+ * {@link #trySplit} splits at the first element boundary after the middle
+ * of the remaining bytes. Whether a ',' separates the elements depends on
+ * the string quoting and the nesting depth, which cannot be known from
+ * the bytes around the middle alone; so the boundary is found by scanning
+ * from a known element start. The boundaries found by the scans are kept
+ * per block of bytes in {@link Boundaries}, which is shared by all the
+ * parts. A scan starts at the last known boundary before the middle, and
+ * a split of an already scanned range needs no scan at all.
+ */
+final class JsonArraySpliteratorImpl implements JsonArraySpliterator {
+
+    // Parts smaller than this are not split further
+    private static final int MIN_SPLIT_SIZE = 4096;
+
+    // Boundaries are kept per block of 1 << BLOCK_SHIFT bytes. It is
+    // smaller than MIN_SPLIT_SIZE/2, so the block of the middle of a part
+    // starts after the part's start
+    private static final int BLOCK_SHIFT = 10;
+
+    private final ByteBuffer buffer;
+    private final BufferPool bufferPool;
+    private final Boundaries boundaries;
+
+    // Remaining part is [pos, end) and it starts at an element
+    private int pos;
+    private final int end;
+
+    private JsonParser parser;
+    private boolean done;
+
+    JsonArraySpliteratorImpl(ByteBuffer buffer, BufferPool bufferPool) {
+        this.buffer = buffer.duplicate();
+        this.bufferPool = bufferPool;
+
+        int begin = buffer.position();
+        int last = buffer.limit()-1;
+        // UTF-8 BOM
+        if (last-begin >= 2 && (buffer.get(begin) & 0xff) == 0xef
+                && (buffer.get(begin+1) & 0xff) == 0xbb && (buffer.get(begin+2) & 0xff) == 0xbf) {
+            begin += 3;
+        }
+        while (begin <= last && isWhitespace(buffer.get(begin))) {
+            begin++;
+        }
+        while (last >= begin && isWhitespace(buffer.get(last))) {
+            last--;
+        }
+        if (last <= begin || buffer.get(begin) != '[' || buffer.get(last) != ']') {
+            throw new JsonException(JsonMessages.SPLITERATOR_EXPECTED_ARRAY());
+        }
+        this.pos = begin+1;
+        this.end = last;
+        this.boundaries = new Boundaries(pos, end);
+    }
+
+    private JsonArraySpliteratorImpl(JsonArraySpliteratorImpl parent, int pos, int end) {
+        this.buffer = parent.buffer;
+        this.bufferPool = parent.bufferPool;
+        this.boundaries = parent.boundaries;
+        this.pos = pos;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonValue> action) {
+        if (action == null) {
+            throw new NullPointerException();
+        }
+        if (done) {
+            return false;
+        }
+        if (parser == null) {
+            // Parse the part as an array of its elements
+            parser = new JsonParserImpl(new PartInputStream(buffer, pos, end),
+                    StandardCharsets.UTF_8, bufferPool);
+            parser.next();
+        }
+        if (parser.next() == JsonParser.Event.END_ARRAY) {
+            done = true;
+            parser.close();
+            return false;
+        }
+        action.accept(parser.getValue());
+        return true;
+    }
+
+    @Override
+    public JsonArraySpliterator trySplit() {
+        if (parser != null || end-pos < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int mid = pos + (end-pos)/2;
+        int split = findElementBoundary(mid);
+        if (split == -1) {
+            return null;
+        }
+        JsonArraySpliteratorImpl prefix = new JsonArraySpliteratorImpl(this, pos, split);
+        pos = split+1;
+        return prefix;
+    }
+
+    // Finds the first ',' separating the elements, at or after the start
+    // of the block of the given index
+    private int findElementBoundary(int mid) {
+        int block = boundaries.blockOf(mid);
+        int split = boundaries.get(block);
+        if (split == -1) {
+            // Scan from the last known boundary before, or from pos
+            int from = pos;
+            for (int k = block-1; k >= 0 && boundaries.start(k) > pos; k--) {
+                int known = boundaries.get(k);
+                if (known != -1) {
+                    if (known >= mid) {
+                        return known < end ? known : -1;
+                    }
+                    from = known+1;
+                    break;
+                }
+            }
+            split = scan(from, mid);
+        }
+        return split < end ? split : -1;
+    }
+
+    // Finds the first ',' separating the elements, at or after mid. The scan
+    // needs to start at an element to know whether a ',' is in a string or
+    // a nested value. Records the boundaries passed on the way.
+    private int scan(int from, int mid) {
+        int next = boundaries.blockAt(from);
+        int depth = 0;
+        boolean inString = false;
+        for (int i = from; i < end; i++) {
+            byte b = buffer.get(i);
+            if (inString) {
+                if (b == '\\') {
+                    i++;            // skip the escaped char
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else {
+                switch (b) {
+                    case '"':
+                        inString = true;
+                        break;
+                    case '[':
+                    case '{':
+                        depth++;
+                        break;
+                    case ']':
+                    case '}':
+                        depth--;
+                        break;
+                    case ',':
+                        if (depth == 0) {
+                            next = boundaries.record(next, i);
+                            if (i >= mid) {
+                                return i;
+                            }
+                        }
+                        break;
+                    default:
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long estimateSize() {
+        // bytes, not elements. Good enough to balance the splits
+        return done ? 0 : end-pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == 0x20 || b == 0x09 || b == 0x0a || b == 0x0d;
+    }
+
+    // Element boundaries of an array, per block of bytes starting at base.
+    // Entry k is 1 + the index of the first ',' separating the elements at
+    // or after the start of block k, or 0 if it is not known yet. Entries
+    // are facts about the immutable buffer, and an int is written
+    // atomically, so parts racing on an entry at worst scan twice.
+    private static final class Boundaries {
+        private final int base;
+        private final int[] first;
+
+        Boundaries(int base, int end) {
+            this.base = base;
+            this.first = new int[((end-base) >> BLOCK_SHIFT) + 1];
+        }
+
+        // Block that contains the index
+        int blockOf(int index) {
+            return (index-base) >> BLOCK_SHIFT;
+        }
+
+        // First block that starts at or after the index
+        int blockAt(int index) {
+            return (index-base + (1 << BLOCK_SHIFT) - 1) >> BLOCK_SHIFT;
+        }
+
+        int start(int block) {
+            return base + (block << BLOCK_SHIFT);
+        }
+
+        // Index of the first boundary at or after the start of the block,
+        // or -1 if it is not known
+        int get(int block) {
+            return first[block]-1;
+        }
+
+        // Records the boundary for the blocks from next that start at or
+        // before it, and returns the block after them
+        int record(int next, int boundary) {
+            for (; next < first.length && start(next) <= boundary; next++) {
+                first[next] = boundary+1;
+            }
+            return next;
+        }
+    }
+
+    // Reads '[' + buffer[pos, end) + ']'
+    private static final class PartInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        private int pos;
+        private final int end;
+        private boolean open;
+        private boolean closed;
+
+        PartInputStream(ByteBuffer buffer, int pos, int end) {
+            this.buffer = buffer.duplicate();
+            this.pos = pos;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            if (!open) {
+                open = true;
+                return '[';
+            }
+            if (pos < end) {
+                return buffer.get(pos++) & 0xff;
+            }
+            if (!closed) {
+                closed = true;
+                return ']';
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!open || pos == end) {
+                int ch = read();
+                if (ch == -1) {
+                    return -1;
+                }
+                b[off] = (byte)ch;
+                return 1;
+            }
+            int n = Math.min(len, end-pos);
+            buffer.position(pos);
+            buffer.get(b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonFeedParser;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * {@link JsonFeedParser} implementation. Each event is parsed from a mark
+ * in the {@link JsonFeedTokenizer}; if the fed input runs out, the tokenizer
+ * is rewound to the mark and the parser states are left as they were,
+ * since a context changes its state only after all the tokens of an event
+ * are read.
+ */
+final class JsonFeedParserImpl extends JsonParserImpl implements JsonFeedParser {
+
+    private final JsonFeedTokenizer tokenizer;
+
+    JsonFeedParserImpl(boolean multipleDocuments, JsonKeyTable keyTable, BufferPool bufferPool) {
+        this(new JsonFeedTokenizer(bufferPool), multipleDocuments, keyTable, bufferPool);
+    }
+
+    private JsonFeedParserImpl(JsonFeedTokenizer tokenizer, boolean multipleDocuments,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        super(tokenizer, multipleDocuments, keyTable, bufferPool);
+        this.tokenizer = tokenizer;
+    }
+
+    @Override
+    public void feed(ByteBuffer bytes) {
+        tokenizer.feed(bytes);
+    }
+
+    @Override
+    public void endOfInput() {
+        tokenizer.endOfInput();
+    }
+
+    @Override
+    public boolean hasNext() {
+        tokenizer.mark();
+        if (!tokenizer.mayProgress(false)) {
+            return true;
+        }
+        try {
+            return super.hasNext();
+        } catch (JsonFeedTokenizer.InputNeededException e) {
+            tokenizer.rewind();
+            return true;
+        }
+    }
+
+    @Override
+    public Event next() {
+        tokenizer.mark();
+        if (!tokenizer.mayProgress(false)) {
+            return null;
+        }
+        try {
+            return super.next();
+        } catch (JsonFeedTokenizer.InputNeededException e) {
+            tokenizer.rewind();
+            return null;
+        }
+    }
+
+    @Override
+    public JsonObject getObject() {
+        if (currentEvent() == Event.START_OBJECT) {
+            checkComplete(false);
+        }
+        return super.getObject();
+    }
+
+    @Override
+    public JsonArray getArray() {
+        if (currentEvent() == Event.START_ARRAY) {
+            checkComplete(true);
+        }
+        return super.getArray();
+    }
+
+    @Override
+    public JsonValue getValue() {
+        Event event = currentEvent();
+        if (event == Event.START_ARRAY || event == Event.START_OBJECT) {
+            checkComplete(event == Event.START_ARRAY);
+        }
+        return super.getValue();
+    }
+
+    @Override
+    public void skipArray() {
+        tokenizer.mark();
+        if (!tokenizer.mayProgress(true)) {
+            throw new IllegalStateException(JsonMessages.PARSER_INPUT_NEEDED());
+        }
+        try {
+            super.skipArray();
+        } catch (JsonFeedTokenizer.InputNeededException e) {
+            tokenizer.rewind();
+            throw new IllegalStateException(JsonMessages.PARSER_INPUT_NEEDED());
+        }
+    }
+
+    @Override
+    public void skipObject() {
+        tokenizer.mark();
+        if (!tokenizer.mayProgress(true)) {
+            throw new IllegalStateException(JsonMessages.PARSER_INPUT_NEEDED());
+        }
+        try {
+            super.skipObject();
+        } catch (JsonFeedTokenizer.InputNeededException e) {
+            tokenizer.rewind();
+            throw new IllegalStateException(JsonMessages.PARSER_INPUT_NEEDED());
+        }
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonValue>> getObjectStream() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<JsonValue> getValueStream() {
+        throw new UnsupportedOperationException();
+    }
+
+    // Building an array or object reads many events, which cannot be undone.
+    // So first scans ahead that its closing bracket is already fed.
+    private void checkComplete(boolean array) {
+        tokenizer.mark();
+        if (!tokenizer.mayProgress(true)) {
+            throw new IllegalStateException(JsonMessages.PARSER_INPUT_NEEDED());
+        }
+        try {
+            tokenizer.skip(array);
+        } catch (JsonFeedTokenizer.InputNeededException e) {
+            throw new IllegalStateException(JsonMessages.PARSER_INPUT_NEEDED());
+        } finally {
+            tokenizer.rewind();
+        }
+    }
+
+}
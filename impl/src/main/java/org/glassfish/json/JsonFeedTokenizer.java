@@ -0,0 +1,196 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import org.glassfish.json.api.BufferPool;
+
+import java.nio.ByteBuffer;
+
+/**
+ * JSON Tokenizer for UTF-8 encoded bytes that are pushed to it in chunks,
+ * instead of being read from a stream. It never blocks: when a token is
+ * not complete with the bytes fed so far, {@link #INPUT_NEEDED} is thrown.
+ * The parser calls {@link #mark()} before reading the tokens of an event,
+ * and {@link #rewind()} to scan them again once more bytes are fed.
+ *
+ * <p>
+ * The bytes from the mark are kept in the buffer, the ones before it are
+ * discarded when the buffer is compacted in {@link #feed(ByteBuffer)}.
+ *
+ * <p>
+ * Scanning again from the mark costs as much as the bytes fed since the
+ * mark. So that a long token fed in many chunks is not scanned again for
+ * each chunk, the parser asks {@link #mayProgress(boolean)} first: a scan
+ * that ran out of input is repeated only once a byte is fed that may end
+ * what it was scanning, for e.g. a '"' for a string. A malformed escape
+ * or number is then reported only when such a byte or the end of input
+ * arrives.
+ */
+final class JsonFeedTokenizer extends JsonUtf8Tokenizer {
+
+    // Thrown when the fed bytes are consumed before a token is complete.
+    // No stack trace, it is a signal that is always caught by the parser.
+    static final InputNeededException INPUT_NEEDED = new InputNeededException();
+
+    private boolean endOfInput;
+
+    // Tokenizer state at the mark
+    private int markReadBegin;
+    private long markBufferOffset;
+    private long markLineNo;
+    private long markLastLineOffset;
+
+    // Last scan that ran out of input: its mark, the end of the bytes that
+    // are known not to let it get further, and what it was scanning.
+    // pendingBegin is -1 if there is none.
+    private int pendingBegin = -1;
+    private int pendingEnd;
+    private int pendingScan;
+    private boolean pendingEscape;      // string byte after a '\\' is next
+
+    JsonFeedTokenizer(BufferPool bufferPool) {
+        super(null, bufferPool);
+    }
+
+    void feed(ByteBuffer src) {
+        if (endOfInput) {
+            throw new IllegalStateException(JsonMessages.PARSER_FEED_ENDED());
+        }
+        int len = src.remaining();
+        if (readEnd + len > bytes.length) {
+            // discard the bytes that are already tokenized
+            int unread = readEnd - readBegin;
+            if (unread + len > bytes.length) {
+                byte[] newBytes = new byte[Math.max(2 * bytes.length, unread + len)];
+                System.arraycopy(bytes, readBegin, newBytes, 0, unread);
+                bufferPool.recycleBytes(bytes);
+                bytes = newBytes;
+            } else {
+                System.arraycopy(bytes, readBegin, bytes, 0, unread);
+            }
+            bufferOffset += readBegin;
+            pendingBegin = (pendingBegin >= readBegin) ? pendingBegin-readBegin : -1;
+            pendingEnd -= readBegin;
+            readBegin = 0;
+            readEnd = unread;
+        }
+        src.get(bytes, readEnd, len);
+        readEnd += len;
+    }
+
+    void endOfInput() {
+        endOfInput = true;
+    }
+
+    void mark() {
+        markReadBegin = readBegin;
+        markBufferOffset = bufferOffset;
+        markLineNo = lineNo;
+        markLastLineOffset = lastLineOffset;
+    }
+
+    void rewind() {
+        readBegin = markReadBegin;
+        bufferOffset = markBufferOffset;
+        lineNo = markLineNo;
+        lastLineOffset = markLastLineOffset;
+    }
+
+    // Whether scanning from the mark may get further than the last scan
+    // from it, that ran out of input. Only the bytes fed since are looked at.
+    boolean mayProgress(boolean skip) {
+        if (endOfInput || pendingBegin != readBegin || skip != (pendingScan == SCAN_SKIP)) {
+            pendingBegin = -1;
+            return true;
+        }
+        for (int i = pendingEnd; i < readEnd; i++) {
+            if (mayEnd(bytes[i])) {
+                pendingBegin = -1;
+                return true;
+            }
+        }
+        pendingEnd = readEnd;
+        return false;
+    }
+
+    private boolean mayEnd(byte b) {
+        switch (pendingScan) {
+            case SCAN_WHITESPACE:
+                return b != 0x20 && b != 0x09 && b != 0x0a && b != 0x0d;
+            case SCAN_STRING:
+                // an escaped '"' does not end the string
+                if (pendingEscape) {
+                    pendingEscape = false;
+                    return false;
+                }
+                pendingEscape = (b == '\\');
+                return b == '"' || (b >= 0 && b < 0x20);
+            case SCAN_NUMBER:
+                return (b < '0' || b > '9') && b != '.' && b != 'e' && b != 'E'
+                        && b != '+' && b != '-';
+            case SCAN_SKIP:
+                return b == ']' || b == '}';
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    boolean fill() {
+        if (endOfInput) {
+            return false;
+        }
+        pendingBegin = markReadBegin;
+        pendingEnd = readEnd;
+        pendingScan = scanning;
+        pendingEscape = false;
+        throw INPUT_NEEDED;
+    }
+
+    static final class InputNeededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private InputNeededException() {
+            super(null, null, false, false);
+        }
+    }
+
+}
@@ -47,6 +47,7 @@ import javax.json.stream.JsonGeneratorFactory;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -55,35 +56,47 @@ import java.util.Map;
 class JsonGeneratorFactoryImpl implements JsonGeneratorFactory {
 
     private final boolean prettyPrinting;
+    private final boolean multipleDocuments;
+    private final boolean cacheText;
     private final Map<String, ?> config;    // unmodifiable map
     private final BufferPool bufferPool;
 
     JsonGeneratorFactoryImpl(Map<String, ?> config, boolean prettyPrinting,
             BufferPool bufferPool) {
+        this(config, prettyPrinting, false, bufferPool);
+    }
+
+    JsonGeneratorFactoryImpl(Map<String, ?> config, boolean prettyPrinting,
+            boolean multipleDocuments, BufferPool bufferPool) {
+        this(config, prettyPrinting, multipleDocuments, false, bufferPool);
+    }
+
+    JsonGeneratorFactoryImpl(Map<String, ?> config, boolean prettyPrinting,
+            boolean multipleDocuments, boolean cacheText, BufferPool bufferPool) {
         this.config = config;
         this.prettyPrinting = prettyPrinting;
+        this.multipleDocuments = multipleDocuments;
+        this.cacheText = cacheText;
         this.bufferPool = bufferPool;
     }
 
     @Override
     public JsonGenerator createGenerator(Writer writer) {
         return prettyPrinting
-                ? new JsonPrettyGeneratorImpl(writer, bufferPool)
-                : new JsonGeneratorImpl(writer, bufferPool);
+                ? new JsonPrettyGeneratorImpl(writer, multipleDocuments, bufferPool)
+                : new JsonGeneratorImpl(writer, multipleDocuments, cacheText, bufferPool);
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out) {
-        return prettyPrinting
-                ? new JsonPrettyGeneratorImpl(out, bufferPool)
-                : new JsonGeneratorImpl(out, bufferPool);
+        return createGenerator(out, StandardCharsets.UTF_8);
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out, Charset charset) {
         return prettyPrinting
-                ? new JsonPrettyGeneratorImpl(out, charset, bufferPool)
-                : new JsonGeneratorImpl(out, charset, bufferPool);
+                ? new JsonPrettyGeneratorImpl(out, charset, multipleDocuments, bufferPool)
+                : new JsonGeneratorImpl(out, charset, multipleDocuments, cacheText, bufferPool);
     }
 
     @Override
@@ -41,6 +41,8 @@
 package org.glassfish.json;
 
 import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonPreparedGenerator;
+import org.glassfish.json.api.JsonPreparedName;
 
 import javax.json.*;
 import javax.json.stream.JsonGenerationException;
@@ -57,7 +59,7 @@ import java.util.Map;
 /**
  * @author Jitendra Kotamraju
  */
-class JsonGeneratorImpl implements JsonGenerator {
+class JsonGeneratorImpl implements JsonPreparedGenerator {
 
     private static final char[] INT_MIN_VALUE_CHARS = "-2147483648".toCharArray();
     private static final int[] INT_CHARS_SIZE_TABLE = { 9, 99, 999, 9999, 99999,
@@ -104,7 +106,12 @@ class JsonGeneratorImpl implements JsonGenerator {
     }
 
     private final BufferPool bufferPool;
-    private final Writer writer;
+    private final Writer writer;          // null when writing UTF-8 bytes
+    private final OutputStream out;       // non-null when writing UTF-8 bytes
+    // Whether a sequence of JSON texts is written, a newline after each
+    private final boolean multipleDocuments;
+    // Whether the text of written objects and arrays is kept in the values
+    private final boolean cacheText;
     private Context currentContext = new Context(Scope.IN_NONE);
     private final Deque<Context> stack = new ArrayDeque<>();
 
@@ -112,12 +119,31 @@ class JsonGeneratorImpl implements JsonGenerator {
     // methods. Also, flushBuffer() is useful when you don't want to actually
     // flush the underlying output source
     private final char buf[];     // capacity >= INT_MIN_VALUE_CHARS.length
+    // For UTF-8 byte streams, the chars are encoded directly into this
+    // buffer instead, and buf is not used. That avoids the OutputStreamWriter
+    // and its encoder buffer.
+    private final byte bytes[];   // capacity >= 6, an escaped char
     private int len = 0;
+    // Numbers other than ints are formatted into this, created on demand
+    private char[] numberChars;
 
     JsonGeneratorImpl(Writer writer, BufferPool bufferPool) {
+        this(writer, false, bufferPool);
+    }
+
+    JsonGeneratorImpl(Writer writer, boolean multipleDocuments, BufferPool bufferPool) {
+        this(writer, multipleDocuments, false, bufferPool);
+    }
+
+    JsonGeneratorImpl(Writer writer, boolean multipleDocuments, boolean cacheText,
+            BufferPool bufferPool) {
         this.writer = writer;
+        this.multipleDocuments = multipleDocuments;
+        this.cacheText = cacheText;
+        this.out = null;
         this.bufferPool = bufferPool;
         this.buf = bufferPool.take();
+        this.bytes = null;
     }
 
     JsonGeneratorImpl(OutputStream out, BufferPool bufferPool) {
@@ -125,14 +151,42 @@ class JsonGeneratorImpl implements JsonGenerator {
     }
 
     JsonGeneratorImpl(OutputStream out, Charset encoding, BufferPool bufferPool) {
-        this(new OutputStreamWriter(out, encoding), bufferPool);
+        this(out, encoding, false, bufferPool);
+    }
+
+    JsonGeneratorImpl(OutputStream out, Charset encoding, boolean multipleDocuments,
+            BufferPool bufferPool) {
+        this(out, encoding, multipleDocuments, false, bufferPool);
+    }
+
+    JsonGeneratorImpl(OutputStream out, Charset encoding, boolean multipleDocuments,
+            boolean cacheText, BufferPool bufferPool) {
+        this.multipleDocuments = multipleDocuments;
+        this.cacheText = cacheText;
+        if (StandardCharsets.UTF_8.equals(encoding)) {
+            this.writer = null;
+            this.out = out;
+            this.bufferPool = bufferPool;
+            this.buf = null;
+            this.bytes = bufferPool.takeBytes();
+        } else {
+            this.writer = new OutputStreamWriter(out, encoding);
+            this.out = null;
+            this.bufferPool = bufferPool;
+            this.buf = bufferPool.take();
+            this.bytes = null;
+        }
     }
 
     @Override
     public void flush() {
         flushBuffer();
         try {
-            writer.flush();
+            if (bytes != null) {
+                out.flush();
+            } else {
+                writer.flush();
+            }
         } catch (IOException ioe) {
             throw new JsonException(JsonMessages.GENERATOR_FLUSH_IO_ERR(), ioe);
         }
@@ -147,22 +201,15 @@ class JsonGeneratorImpl implements JsonGenerator {
             throw new JsonGenerationException(JsonMessages.GENERATOR_ILLEGAL_MULTIPLE_TEXT());
         }
         writeComma();
-        writeChar('{');
-        stack.push(currentContext);
-        currentContext = new Context(Scope.IN_OBJECT);
+        writeStart('{');
         return this;
     }
 
     @Override
     public JsonGenerator writeStartObject(String name) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
-        writeChar('{');
-        stack.push(currentContext);
-        currentContext = new Context(Scope.IN_OBJECT);
+        writeStart('{');
         return this;
     }
 
@@ -175,10 +222,7 @@ class JsonGeneratorImpl implements JsonGenerator {
 
     @Override
     public JsonGenerator write(String name, String fieldValue) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
         writeEscapedString(fieldValue);
         return this;
@@ -186,10 +230,7 @@ class JsonGeneratorImpl implements JsonGenerator {
 
     @Override
     public JsonGenerator write(String name, int value) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
         writeInt(value);
         return this;
@@ -197,68 +238,48 @@ class JsonGeneratorImpl implements JsonGenerator {
 
     @Override
     public JsonGenerator write(String name, long value) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
-        writeString(String.valueOf(value));
+        writeLong(value);
         return this;
     }
 
     @Override
     public JsonGenerator write(String name, double value) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
-        if (Double.isInfinite(value) || Double.isNaN(value)) {
-            throw new NumberFormatException(JsonMessages.GENERATOR_DOUBLE_INFINITE_NAN());
-        }
+        checkInObject();
+        checkFinite(value);
         writeName(name);
-        writeString(String.valueOf(value));
+        writeDouble(value);
         return this;
     }
 
     @Override
     public JsonGenerator write(String name, BigInteger value) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
-        writeString(String.valueOf(value));
+        writeMemberValue(value);
         return this;
     }
 
     @Override
     public JsonGenerator write(String name, BigDecimal value) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
-        writeString(String.valueOf(value));
+        writeMemberValue(value);
         return this;
     }
 
     @Override
     public JsonGenerator write(String name, boolean value) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
-        writeString(value? "true" : "false");
+        writeString(value ? "true" : "false");
         return this;
     }
 
     @Override
     public JsonGenerator writeNull(String name) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
         writeString("null");
         return this;
@@ -270,8 +291,13 @@ class JsonGeneratorImpl implements JsonGenerator {
             throw new JsonGenerationException(
                     JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
         }
+        String text;
         switch (value.getValueType()) {
             case ARRAY:
+                if ((text = serializedText(value)) != null) {
+                    writeValue(text);
+                    break;
+                }
                 JsonArray array = (JsonArray)value;
                 writeStartArray();
                 for(JsonValue child: array) {
@@ -280,6 +306,10 @@ class JsonGeneratorImpl implements JsonGenerator {
                 writeEnd();
                 break;
             case OBJECT:
+                if ((text = serializedText(value)) != null) {
+                    writeValue(text);
+                    break;
+                }
                 JsonObject object = (JsonObject)value;
                 writeStartObject();
                 for(Map.Entry<String, JsonValue> member: object.entrySet()) {
@@ -292,8 +322,8 @@ class JsonGeneratorImpl implements JsonGenerator {
                 write(str.getString());
                 break;
             case NUMBER:
-                JsonNumber number = (JsonNumber)value;
-                writeValue(number.toString());
+                writeComma();
+                writeNumber((JsonNumber)value);
                 break;
             case TRUE:
                 write(true);
@@ -318,67 +348,226 @@ class JsonGeneratorImpl implements JsonGenerator {
             throw new JsonGenerationException(JsonMessages.GENERATOR_ILLEGAL_MULTIPLE_TEXT());
         }
         writeComma();
-        writeChar('[');
-        stack.push(currentContext);
-        currentContext = new Context(Scope.IN_ARRAY);
+        writeStart('[');
         return this;
     }
 
     @Override
     public JsonGenerator writeStartArray(String name) {
-        if (currentContext.scope != Scope.IN_OBJECT) {
-            throw new JsonGenerationException(
-                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
-        }
+        checkInObject();
         writeName(name);
-        writeChar('[');
-        stack.push(currentContext);
-        currentContext = new Context(Scope.IN_ARRAY);
+        writeStart('[');
         return this;
     }
 
     @Override
     public JsonGenerator write(String name, JsonValue value) {
+        checkInObject();
+        writeName(name);
+        writeMemberValue(value);
+        return this;
+    }
+
+    // The JsonPreparedName methods only differ from the String name ones
+    // in how the name is written
+
+    @Override
+    public JsonPreparedGenerator writeStartObject(JsonPreparedName name) {
+        checkInObject();
+        writeName(name);
+        writeStart('{');
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator writeStartArray(JsonPreparedName name) {
+        checkInObject();
+        writeName(name);
+        writeStart('[');
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, JsonValue value) {
+        checkInObject();
+        writeName(name);
+        writeMemberValue(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, String value) {
+        checkInObject();
+        writeName(name);
+        writeEscapedString(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, BigInteger value) {
+        checkInObject();
+        writeName(name);
+        writeMemberValue(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, BigDecimal value) {
+        checkInObject();
+        writeName(name);
+        writeMemberValue(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, int value) {
+        checkInObject();
+        writeName(name);
+        writeInt(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, long value) {
+        checkInObject();
+        writeName(name);
+        writeLong(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, double value) {
+        checkInObject();
+        checkFinite(value);
+        writeName(name);
+        writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator write(JsonPreparedName name, boolean value) {
+        checkInObject();
+        writeName(name);
+        writeString(value ? "true" : "false");
+        return this;
+    }
+
+    @Override
+    public JsonPreparedGenerator writeNull(JsonPreparedName name) {
+        checkInObject();
+        writeName(name);
+        writeString("null");
+        return this;
+    }
+
+    // Copies the prepared text of the name, a name of another
+    // implementation is escaped as usual
+    private void writeName(JsonPreparedName name) {
+        if (!(name instanceof JsonPreparedNameImpl)) {
+            writeName(name.getName());
+            return;
+        }
+        writeComma();
+        JsonPreparedNameImpl prepared = (JsonPreparedNameImpl)name;
+        if (bytes != null) {
+            byte[] text = prepared.bytes;
+            if (len + text.length > bytes.length) {
+                flushBuffer();
+            }
+            int begin = 0;
+            while (begin < text.length) {
+                int no = Math.min(bytes.length - len, text.length - begin);
+                System.arraycopy(text, begin, bytes, len, no);
+                begin += no;
+                len += no;
+                if (len >= bytes.length) {
+                    flushBuffer();
+                }
+            }
+        } else {
+            writeAscii(prepared.chars, prepared.chars.length);
+        }
+    }
+
+    private void checkInObject() {
         if (currentContext.scope != Scope.IN_OBJECT) {
             throw new JsonGenerationException(
                     JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
         }
+    }
+
+    private static void checkFinite(double value) {
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            throw new NumberFormatException(JsonMessages.GENERATOR_DOUBLE_INFINITE_NAN());
+        }
+    }
+
+    // Writes the start char of an object or array, and enters its context
+    void writeStart(char c) {
+        writeChar(c);
+        stack.push(currentContext);
+        currentContext = new Context(c == '[' ? Scope.IN_ARRAY : Scope.IN_OBJECT);
+    }
+
+    // The value of a member, after its name is written
+    private void writeMemberValue(JsonValue value) {
+        String text;
         switch (value.getValueType()) {
             case ARRAY:
-                JsonArray array = (JsonArray)value;
-                writeStartArray(name);
-                for(JsonValue child: array) {
+                if ((text = serializedText(value)) != null) {
+                    writeString(text);
+                    break;
+                }
+                writeStart('[');
+                for(JsonValue child: (JsonArray)value) {
                     write(child);
                 }
                 writeEnd();
                 break;
             case OBJECT:
-                JsonObject object = (JsonObject)value;
-                writeStartObject(name);
-                for(Map.Entry<String, JsonValue> member: object.entrySet()) {
+                if ((text = serializedText(value)) != null) {
+                    writeString(text);
+                    break;
+                }
+                writeStart('{');
+                for(Map.Entry<String, JsonValue> member: ((JsonObject)value).entrySet()) {
                     write(member.getKey(), member.getValue());
                 }
                 writeEnd();
                 break;
             case STRING:
-                JsonString str = (JsonString)value;
-                write(name, str.getString());
+                writeEscapedString(((JsonString)value).getString());
                 break;
             case NUMBER:
-                JsonNumber number = (JsonNumber)value;
-                writeValue(name, number.toString());
+                writeNumber((JsonNumber)value);
                 break;
             case TRUE:
-                write(name, true);
+                writeString("true");
                 break;
             case FALSE:
-                write(name, false);
+                writeString("false");
                 break;
             case NULL:
-                writeNull(name);
+                writeString("null");
                 break;
         }
-        return this;
+    }
+
+    // A null member value is written as null
+    private void writeMemberValue(BigInteger value) {
+        if (value == null) {
+            writeString("null");
+        } else {
+            writeBigInteger(value);
+        }
+    }
+
+    private void writeMemberValue(BigDecimal value) {
+        if (value == null) {
+            writeString("null");
+        } else {
+            writeBigDecimal(value);
+        }
     }
 
     public JsonGenerator write(String value) {
@@ -408,7 +597,8 @@ class JsonGeneratorImpl implements JsonGenerator {
             throw new JsonGenerationException(
                     JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
         }
-        writeValue(String.valueOf(value));
+        writeComma();
+        writeLong(value);
         return this;
     }
 
@@ -421,7 +611,8 @@ class JsonGeneratorImpl implements JsonGenerator {
         if (Double.isInfinite(value) || Double.isNaN(value)) {
             throw new NumberFormatException(JsonMessages.GENERATOR_DOUBLE_INFINITE_NAN());
         }
-        writeValue(String.valueOf(value));
+        writeComma();
+        writeDouble(value);
         return this;
     }
 
@@ -431,7 +622,8 @@ class JsonGeneratorImpl implements JsonGenerator {
             throw new JsonGenerationException(
                     JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
         }
-        writeValue(value.toString());
+        writeComma();
+        writeBigInteger(value);
         return this;
     }
 
@@ -441,7 +633,8 @@ class JsonGeneratorImpl implements JsonGenerator {
             throw new JsonGenerationException(
                     JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
         }
-        writeValue(value.toString());
+        writeComma();
+        writeBigDecimal(value);
         return this;
     }
 
@@ -465,15 +658,59 @@ class JsonGeneratorImpl implements JsonGenerator {
         return this;
     }
 
-    private void writeValue(String value) {
-        writeComma();
-        writeString(value);
+    /**
+     * Writes a whole JSON text from the serialized text of the given value,
+     * if it is available.
+     *
+     * @param value an object or array
+     * @return true if the text is written, false if the caller has to
+     * generate the value
+     */
+    boolean writeSerialized(JsonStructure value) {
+        String text = serializedText(value);
+        if (text == null) {
+            return false;
+        }
+        if (currentContext.scope != Scope.IN_NONE) {
+            throw new JsonGenerationException(
+                    JsonMessages.GENERATOR_ILLEGAL_METHOD(currentContext.scope));
+        }
+        if (!currentContext.first) {
+            throw new JsonGenerationException(JsonMessages.GENERATOR_ILLEGAL_MULTIPLE_TEXT());
+        }
+        writeString(text);
+        if (multipleDocuments) {
+            // End of a text, the next one starts on a new line
+            writeChar('\n');
+        } else {
+            currentContext.first = false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the compact text of an object or array of this implementation,
+     * when the cache is enabled. The text is serialized and kept in the
+     * value on the first write of the value.
+     *
+     * @param value an object or array
+     * @return the serialized text, or null if the value is to be generated
+     */
+    String serializedText(JsonValue value) {
+        if (!cacheText || !(value instanceof JsonSerializedText)) {
+            return null;
+        }
+        JsonSerializedText cached = (JsonSerializedText)value;
+        String text = cached.getSerializedText();
+        if (text == null) {
+            text = value.toString();
+            cached.setSerializedText(text);
+        }
+        return text;
     }
 
-    private void writeValue(String name, String value) {
+    private void writeValue(String value) {
         writeComma();
-        writeEscapedString(name);
-        writeChar(':');
         writeString(value);
     }
 
@@ -484,6 +721,11 @@ class JsonGeneratorImpl implements JsonGenerator {
         }
         writeChar(currentContext.scope == Scope.IN_ARRAY ? ']' : '}');
         currentContext = stack.pop();
+        if (multipleDocuments && currentContext.scope == Scope.IN_NONE) {
+            // End of a text, the next one starts on a new line
+            writeChar('\n');
+            currentContext.first = true;
+        }
         return this;
     }
 
@@ -505,78 +747,85 @@ class JsonGeneratorImpl implements JsonGenerator {
     }
 
     public void close() {
-        if (currentContext.scope != Scope.IN_NONE || currentContext.first) {
+        if (currentContext.scope != Scope.IN_NONE || (currentContext.first && !multipleDocuments)) {
             throw new JsonGenerationException(JsonMessages.GENERATOR_INCOMPLETE_JSON());
         }
         flushBuffer();
         try {
-            writer.close();
+            if (bytes != null) {
+                out.close();
+            } else {
+                writer.close();
+            }
         } catch (IOException ioe) {
             throw new JsonException(JsonMessages.GENERATOR_CLOSE_IO_ERR(), ioe);
         }
-        bufferPool.recycle(buf);
+        if (bytes != null) {
+            bufferPool.recycleBytes(bytes);
+        } else {
+            bufferPool.recycle(buf);
+        }
     }
 
-    // begin, end-1 indexes represent characters that need not
-    // be escaped
-    //
-    // XXXssssssssssssXXXXXXXXXXXXXXXXXXXXXXrrrrrrrrrrrrrrXXXXXX
-    //    ^           ^                     ^             ^
-    //    |           |                     |             |
-    //   begin       end                   begin         end
     void writeEscapedString(String string) {
         writeChar('"');
-        int len = string.length();
-        for(int i = 0; i < len; i++) {
-            int begin = i, end = i;
-            char c = string.charAt(i);
-            // find all the characters that need not be escaped
-            // unescaped = %x20-21 | %x23-5B | %x5D-10FFFF
-            while(c >= 0x20 && c <= 0x10ffff && c != 0x22 && c != 0x5c) {
-                i++; end = i;
-                if (i < len) {
-                    c = string.charAt(i);
-                } else {
-                    break;
-                }
+        if (bytes != null) {
+            writeEscapedUtf8(string);
+        } else {
+            int len = string.length();
+            int begin = 0;
+            int i;
+            // Runs of chars that need not be escaped are copied in bulk
+            while ((i = JsonStringEscaper.indexOfEscape(string, begin, len)) < len) {
+                writeString(string, begin, i);
+                char[] escape = JsonStringEscaper.escape(string.charAt(i));
+                writeAscii(escape, escape.length);
+                begin = i + 1;
             }
-            // Write characters without escaping
-            if (begin < end) {
-                writeString(string, begin, end);
-                if (i == len) {
-                    break;
+            writeString(string, begin, len);
+        }
+        writeChar('"');
+    }
+
+    // Escapes and encodes the ASCII chars into the byte buffer in one pass,
+    // the other chars are encoded by writeUtf8()
+    private void writeEscapedUtf8(String str) {
+        int begin = 0;
+        int end = str.length();
+        while (begin < end) {
+            int limit = Math.min(end, begin + bytes.length - len);
+            char c = 0;
+            while (begin < limit && (c = str.charAt(begin)) < 0x80
+                    && JsonStringEscaper.escape(c) == null) {
+                bytes[len++] = (byte)c;
+                begin++;
+            }
+            if (begin == limit) {
+                if (begin < end) {
+                    flushBuffer();
                 }
+                continue;
             }
-
-            switch (c) {
-                case '"':
-                case '\\':
-                    writeChar('\\'); writeChar(c);
-                    break;
-                case '\b':
-                    writeChar('\\'); writeChar('b');
-                    break;
-                case '\f':
-                    writeChar('\\'); writeChar('f');
-                    break;
-                case '\n':
-                    writeChar('\\'); writeChar('n');
-                    break;
-                case '\r':
-                    writeChar('\\'); writeChar('r');
-                    break;
-                case '\t':
-                    writeChar('\\'); writeChar('t');
-                    break;
-                default:
-                    String hex = "000" + Integer.toHexString(c);
-                    writeString("\\u" + hex.substring(hex.length() - 4));
+            if (c < 0x80) {
+                char[] escape = JsonStringEscaper.escape(c);
+                writeAscii(escape, escape.length);
+                begin++;
+            } else {
+                int next = begin + 1;
+                while (next < end && str.charAt(next) >= 0x80) {
+                    next++;
+                }
+                writeUtf8(str, begin, next);
+                begin = next;
             }
         }
-        writeChar('"');
     }
 
     void writeString(String str, int begin, int end) {
+        if (bytes != null) {
+            writeUtf8(str, begin, end);
+            return;
+        }
         while (begin < end) {       // source begin and end indexes
             int no = Math.min(buf.length - len, end - begin);
             str.getChars(begin, begin + no, buf, len);
@@ -593,6 +842,17 @@ class JsonGeneratorImpl implements JsonGenerator {
     }
 
     void writeChar(char c) {
+        if (bytes != null) {
+            if (c >= 0x80) {
+                writeUtf8(String.valueOf(c), 0, 1);
+                return;
+            }
+            if (len >= bytes.length) {
+                flushBuffer();
+            }
+            bytes[len++] = (byte)c;
+            return;
+        }
         if (len >= buf.length) {
             flushBuffer();
         }
@@ -608,6 +868,20 @@ class JsonGeneratorImpl implements JsonGenerator {
         } else {
             size = (num < 0) ? stringSize(-num) + 1 : stringSize(num);
         }
+        if (bytes != null) {
+            if (len+size >= bytes.length) {
+                flushBuffer();
+            }
+            if (num == Integer.MIN_VALUE) {
+                for (int i = 0; i < size; i++) {
+                    bytes[len+i] = (byte)INT_MIN_VALUE_CHARS[i];
+                }
+            } else {
+                fillIntBytes(num, bytes, len+size);
+            }
+            len += size;
+            return;
+        }
         if (len+size >= buf.length) {
             flushBuffer();
         }
@@ -619,14 +893,149 @@ class JsonGeneratorImpl implements JsonGenerator {
         len += size;
     }
 
-    // flushBuffer writes the buffered contents to writer. But incase of
-    // byte stream, an OuputStreamWriter is created and that buffers too.
+    // Not using Long.toString(), Double.toString() etc. since they create
+    // intermediary Strings. The chars are formatted into numberChars and
+    // copied to our buffer.
+    void writeLong(long num) {
+        if (num == (int)num) {
+            writeInt((int)num);
+            return;
+        }
+        writeNumberChars(JsonNumberFormat.formatLong(num, numberChars(), 0));
+    }
+
+    void writeDouble(double num) {
+        writeNumberChars(JsonNumberFormat.formatDouble(num, numberChars(), 0));
+    }
+
+    void writeBigInteger(BigInteger num) {
+        if (num.bitLength() < 64) {
+            writeLong(num.longValue());
+        } else {
+            writeString(num.toString());
+        }
+    }
+
+    void writeBigDecimal(BigDecimal num) {
+        // BigDecimal has no accessor of a long unscaled value that doesn't
+        // allocate, but its toString() is cached
+        if (num.scale() == 0 && num.precision() < 19) {
+            writeLong(num.longValue());
+        } else {
+            writeString(num.toString());
+        }
+    }
+
+    // Writes the same text as JsonNumber.toString()
+    void writeNumber(JsonNumber number) {
+        if (number instanceof JsonNumberImpl) {
+            JsonNumberImpl num = (JsonNumberImpl)number;
+            int kind = num.primitiveKind();
+            if (kind == JsonNumberImpl.KIND_INT || kind == JsonNumberImpl.KIND_LONG) {
+                writeLong(num.unscaledValue());
+                return;
+            }
+            if (kind == JsonNumberImpl.KIND_DOUBLE) {
+                long unscaled = num.unscaledValue();
+                if (unscaled != Long.MIN_VALUE) {
+                    writeNumberChars(JsonNumberFormat.formatDecimal(
+                            unscaled, num.fractionDigits(), numberChars(), 0));
+                    return;
+                }
+            }
+            writeBigDecimal(num.bigDecimalValue());
+            return;
+        }
+        writeString(number.toString());
+    }
+
+    private char[] numberChars() {
+        char[] chars = numberChars;
+        if (chars == null) {
+            numberChars = chars = new char[JsonNumberFormat.MAX_CHARS];
+        }
+        return chars;
+    }
+
+    private void writeNumberChars(int count) {
+        writeAscii(numberChars, count);
+    }
+
+    // Copies the first count chars. The chars must be all ASCII for the
+    // UTF-8 byte buffer, for e.g. a number or an escape sequence.
+    private void writeAscii(char[] chars, int count) {
+        if (bytes != null) {
+            for (int i = 0; i < count; i++) {
+                if (len >= bytes.length) {
+                    flushBuffer();
+                }
+                bytes[len++] = (byte)chars[i];
+            }
+            return;
+        }
+        int begin = 0;
+        while (begin < count) {
+            int no = Math.min(buf.length - len, count - begin);
+            System.arraycopy(chars, begin, buf, len, no);
+            begin += no;
+            len += no;
+            if (len >= buf.length) {
+                flushBuffer();
+            }
+        }
+    }
+
+    // Encodes the chars as UTF-8 into the byte buffer. Unpaired surrogates
+    // are written as '?', as the OutputStreamWriter would do.
+    private void writeUtf8(String str, int begin, int end) {
+        while (begin < end) {
+            // ASCII chars, as much as the buffer can take
+            int limit = Math.min(end, begin + bytes.length - len);
+            char c;
+            while (begin < limit && (c = str.charAt(begin)) < 0x80) {
+                bytes[len++] = (byte)c;
+                begin++;
+            }
+            if (len + 4 > bytes.length) {
+                flushBuffer();
+            }
+            if (begin == limit) {
+                continue;
+            }
+            c = str.charAt(begin++);
+            if (c < 0x800) {
+                bytes[len++] = (byte)(0xc0 | (c >> 6));
+                bytes[len++] = (byte)(0x80 | (c & 0x3f));
+            } else if (!Character.isSurrogate(c)) {
+                bytes[len++] = (byte)(0xe0 | (c >> 12));
+                bytes[len++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+                bytes[len++] = (byte)(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && begin < end
+                    && Character.isLowSurrogate(str.charAt(begin))) {
+                int cp = Character.toCodePoint(c, str.charAt(begin++));
+                bytes[len++] = (byte)(0xf0 | (cp >> 18));
+                bytes[len++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+                bytes[len++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+                bytes[len++] = (byte)(0x80 | (cp & 0x3f));
+            } else {
+                bytes[len++] = '?';
+            }
+        }
+    }
+
+    // flushBuffer writes the buffered contents to writer, or directly
+    // to the byte stream for UTF-8. But incase of byte stream with other
+    // encodings, an OuputStreamWriter is created and that buffers too.
     // We may need to call OutputStreamWriter#flushBuffer() using
     // reflection if that is really required (commented out below)
     void flushBuffer() {
         try {
             if (len > 0) {
-                writer.write(buf, 0, len);
+                if (bytes != null) {
+                    out.write(bytes, 0, len);
+                } else {
+                    writer.write(buf, 0, len);
+                }
                 len = 0;
             }
         } catch (IOException ioe) {
@@ -706,4 +1115,43 @@ class JsonGeneratorImpl implements JsonGenerator {
         }
     }
 
+    /**
+     * Same as {@link #fillIntChars} but places ASCII bytes into
+     * the byte array buf.
+     *
+     * Will fail if i == Integer.MIN_VALUE
+     */
+    private static void fillIntBytes(int i, byte[] buf, int index) {
+        int q, r;
+        int charPos = index;
+        char sign = 0;
+
+        if (i < 0) {
+            sign = '-';
+            i = -i;
+        }
+
+        // Generate two digits per iteration
+        while (i >= 65536) {
+            q = i / 100;
+            // really: r = i - (q * 100);
+            r = i - ((q << 6) + (q << 5) + (q << 2));
+            i = q;
+            buf [--charPos] = (byte)DIGIT_ONES[r];
+            buf [--charPos] = (byte)DIGIT_TENS[r];
+        }
+
+        // Fall thru to fast mode for smaller numbers
+        for (;;) {
+            q = (i * 52429) >>> (16+3);
+            r = i - ((q << 3) + (q << 1));  // r = i-(q*10) ...
+            buf [--charPos] = (byte)DIGITS[r];
+            i = q;
+            if (i == 0) break;
+        }
+        if (sign != 0) {
+            buf [--charPos] = (byte)sign;
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+/**
+ * Table of the key names that are already created by the parsers of a
+ * factory. A key name is looked up with the chars in the tokenizer's
+ * buffer, so a repeated key name doesn't create a new String, and the same
+ * String instance is used for it in all the objects.
+ *
+ * <p>
+ * The table has a fixed number of slots, a name replaces the one that is
+ * in its slot. It is shared by the parsers without locking, a slot holds
+ * an immutable String and at the most a name is created again.
+ */
+final class JsonKeyTable {
+
+    private static final int SIZE = 1024;           // power of two
+    // Longer names are not expected to repeat
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final String[] keys = new String[SIZE];
+
+    String get(char[] buf, int begin, int len) {
+        if (len > MAX_KEY_LENGTH) {
+            return new String(buf, begin, len);
+        }
+        // Same hash as String, so that the name's cached hash is compared first
+        int hash = 0;
+        for(int i=begin; i < begin+len; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        int index = (hash ^ (hash >>> 16)) & (SIZE-1);
+        String key = keys[index];
+        if (key != null && key.hashCode() == hash && equals(key, buf, begin, len)) {
+            return key;
+        }
+        key = new String(buf, begin, len);
+        keys[index] = key;
+        return key;
+    }
+
+    private static boolean equals(String key, char[] buf, int begin, int len) {
+        if (key.length() != len) {
+            return false;
+        }
+        for(int i=0; i < len; i++) {
+            if (key.charAt(i) != buf[begin+i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
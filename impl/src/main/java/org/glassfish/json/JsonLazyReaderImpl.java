@@ -0,0 +1,536 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonNumberArray;
+
+import javax.json.*;
+import javax.json.stream.JsonParser.Event;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * JsonReader impl that reads the nested objects and arrays lazily. The
+ * whole input is kept as chars. {@code read()} parses the top level of the
+ * value, and only scans the structure of the nested objects and arrays
+ * (brackets and strings) to find their ends. A nested object or array is
+ * parsed on its first access, and then only its own level: its nested
+ * objects and arrays are skipped and are lazy values again.
+ *
+ * <p>
+ * So the text of a value is scanned once by each level that contains it:
+ * accessing a value at depth d scans its text d+1 times, with a new parser
+ * over a copy of the level's text each time. This pays off when only a few
+ * of the nested values are accessed; a document that is accessed entirely
+ * is read faster eagerly.
+ *
+ * <p>
+ * Syntax errors in a nested value other than in its structure are reported
+ * as {@code JsonParsingException} by the method that accesses the value.
+ * The lazy values keep a reference to the text of the whole input.
+ */
+final class JsonLazyReaderImpl implements JsonReader {
+    private Reader reader;              // null once the input is read
+    private JsonParserImpl parser;      // parser of the whole text, created on first read
+    private char[] text;                // the input is text[0, textLength)
+    private int textLength;
+    private boolean readDone;
+    // Whether a sequence of JSON texts is read, one per read call
+    private final boolean multipleDocuments;
+    private final JsonKeyTable keyTable;
+    private final BufferPool bufferPool;
+
+    JsonLazyReaderImpl(Reader reader, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        this.reader = reader;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
+        this.bufferPool = bufferPool;
+    }
+
+    JsonLazyReaderImpl(InputStream in, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        this(detectingReader(in), multipleDocuments, keyTable, bufferPool);
+    }
+
+    JsonLazyReaderImpl(InputStream in, Charset charset, boolean multipleDocuments,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        this(new InputStreamReader(in, charset), multipleDocuments, keyTable, bufferPool);
+    }
+
+    private static Reader detectingReader(InputStream in) {
+        UnicodeDetectingInputStream uin = new UnicodeDetectingInputStream(in);
+        return new InputStreamReader(uin, uin.getCharset());
+    }
+
+    @Override
+    public JsonStructure read() {
+        return readStructure(null);
+    }
+
+    @Override
+    public JsonObject readObject() {
+        return (JsonObject)readStructure(Event.START_OBJECT);
+    }
+
+    @Override
+    public JsonArray readArray() {
+        return (JsonArray)readStructure(Event.START_ARRAY);
+    }
+
+    private JsonStructure readStructure(Event expected) {
+        if (readDone) {
+            throw new IllegalStateException(JsonMessages.READER_READ_ALREADY_CALLED());
+        }
+        readDone = !multipleDocuments;
+        JsonParserImpl parser = parser();
+        if (parser.hasNext()) {
+            Event e = parser.next();
+            if (expected == Event.START_OBJECT && e == Event.START_ARRAY) {
+                throw new JsonException(JsonMessages.READER_EXPECTED_OBJECT_GOT_ARRAY());
+            } else if (expected == Event.START_ARRAY && e == Event.START_OBJECT) {
+                throw new JsonException(JsonMessages.READER_EXPECTED_ARRAY_GOT_OBJECT());
+            }
+            // the top level is parsed now, with the parser of the whole text
+            if (e == Event.START_OBJECT) {
+                return readObject(parser, text, 0, keyTable, bufferPool);
+            } else if (e == Event.START_ARRAY) {
+                return readArray(parser, text, 0, keyTable, bufferPool);
+            }
+        } else if (multipleDocuments) {
+            return null;            // end of the input
+        }
+        throw new JsonException("Internal Error");
+    }
+
+    private JsonParserImpl parser() {
+        if (parser == null) {
+            text = readFully(reader);
+            reader = null;
+            parser = new JsonParserImpl(new CharArrayReader(text, 0, textLength),
+                    multipleDocuments, keyTable, bufferPool);
+        }
+        return parser;
+    }
+
+    private char[] readFully(Reader reader) {
+        char[] buf = bufferPool.take();
+        try {
+            char[] chars = new char[buf.length];
+            int len = 0;
+            int n;
+            while ((n = reader.read(buf)) != -1) {
+                if (len + n > chars.length) {
+                    chars = Arrays.copyOf(chars, Math.max(2 * chars.length, len + n));
+                }
+                System.arraycopy(buf, 0, chars, len, n);
+                len += n;
+            }
+            textLength = len;       // not trimmed, to not copy it once more
+            return chars;
+        } catch (IOException ioe) {
+            throw new JsonException(JsonMessages.TOKENIZER_IO_ERR(), ioe);
+        } finally {
+            bufferPool.recycle(buf);
+        }
+    }
+
+    @Override
+    public void close() {
+        readDone = true;
+        if (parser != null) {
+            parser.close();
+        } else {
+            try {
+                reader.close();
+            } catch (IOException ioe) {
+                throw new JsonException(JsonMessages.PARSER_TOKENIZER_CLOSE_IO(), ioe);
+            }
+        }
+    }
+
+    /*
+     * Returns the value of the current event. The text of an object or array
+     * is skipped, and a lazy value is returned for it. base is the offset of
+     * the parser's input in text.
+     */
+    private static JsonValue readValue(JsonParserImpl parser, Event e, char[] text, int base,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        int begin;
+        switch (e) {
+            case START_OBJECT:
+                begin = base + (int)parser.getLocation().getStreamOffset() - 1;
+                parser.skipObject();
+                return new LazyObject(text, begin,
+                        base + (int)parser.getLocation().getStreamOffset(), keyTable, bufferPool);
+            case START_ARRAY:
+                begin = base + (int)parser.getLocation().getStreamOffset() - 1;
+                parser.skipArray();
+                return new LazyArray(text, begin,
+                        base + (int)parser.getLocation().getStreamOffset(), keyTable, bufferPool);
+            default:
+                return parser.getValue();
+        }
+    }
+
+    // Reads the level of an object whose START_OBJECT is the current event
+    private static JsonObject readObject(JsonParserImpl parser, char[] text, int base,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        String[] names = new String[8];
+        JsonValue[] values = new JsonValue[8];
+        int len = 0;
+        Event e;
+        while ((e = parser.next()) == Event.KEY_NAME) {
+            if (len == names.length) {
+                names = Arrays.copyOf(names, 2 * len);
+                values = Arrays.copyOf(values, 2 * len);
+            }
+            names[len] = parser.getString();
+            values[len++] = readValue(parser, parser.next(), text, base, keyTable, bufferPool);
+        }
+        return new JsonObjectBuilderImpl.JsonObjectImpl(names, values, len, bufferPool);
+    }
+
+    // Reads the level of an array whose START_ARRAY is the current event
+    private static JsonNumberArray readArray(JsonParserImpl parser, char[] text, int base,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        List<JsonValue> list = new ArrayList<>();
+        Event e;
+        while ((e = parser.next()) != Event.END_ARRAY) {
+            list.add(readValue(parser, e, text, base, keyTable, bufferPool));
+        }
+        // numbers are kept in a primitive array
+        List<JsonValue> numbers = JsonNumberList.of(list);
+        return new JsonArrayBuilderImpl.JsonArrayImpl(
+                (numbers != null) ? numbers : Collections.unmodifiableList(list),
+                bufferPool);
+    }
+
+    // Parser of the text of an object or array
+    private static JsonParserImpl parser(char[] text, int begin, int end,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        JsonParserImpl parser = new JsonParserImpl(new CharArrayReader(text, begin, end - begin),
+                false, keyTable, bufferPool);
+        parser.next();      // START_OBJECT or START_ARRAY
+        return parser;
+    }
+
+    private static final class LazyObject extends AbstractMap<String, JsonValue> implements JsonObject {
+        private final char[] text;
+        private final int begin;
+        private final int end;
+        private final JsonKeyTable keyTable;
+        private final BufferPool bufferPool;
+        private JsonObject object;      // parsed on demand
+
+        LazyObject(char[] text, int begin, int end, JsonKeyTable keyTable, BufferPool bufferPool) {
+            this.text = text;
+            this.begin = begin;
+            this.end = end;
+            this.keyTable = keyTable;
+            this.bufferPool = bufferPool;
+        }
+
+        private JsonObject object() {
+            // JsonObjectImpl is immutable, at the most the level is parsed again
+            JsonObject obj = object;
+            if (obj == null) {
+                object = obj = parse();
+            }
+            return obj;
+        }
+
+        private JsonObject parse() {
+            try (JsonParserImpl parser = parser(text, begin, end, keyTable, bufferPool)) {
+                return readObject(parser, text, begin, keyTable, bufferPool);
+            }
+        }
+
+        @Override
+        public JsonArray getJsonArray(String name) {
+            return object().getJsonArray(name);
+        }
+
+        @Override
+        public JsonObject getJsonObject(String name) {
+            return object().getJsonObject(name);
+        }
+
+        @Override
+        public JsonNumber getJsonNumber(String name) {
+            return object().getJsonNumber(name);
+        }
+
+        @Override
+        public JsonString getJsonString(String name) {
+            return object().getJsonString(name);
+        }
+
+        @Override
+        public String getString(String name) {
+            return object().getString(name);
+        }
+
+        @Override
+        public String getString(String name, String defaultValue) {
+            return object().getString(name, defaultValue);
+        }
+
+        @Override
+        public int getInt(String name) {
+            return object().getInt(name);
+        }
+
+        @Override
+        public int getInt(String name, int defaultValue) {
+            return object().getInt(name, defaultValue);
+        }
+
+        @Override
+        public boolean getBoolean(String name) {
+            return object().getBoolean(name);
+        }
+
+        @Override
+        public boolean getBoolean(String name, boolean defaultValue) {
+            return object().getBoolean(name, defaultValue);
+        }
+
+        @Override
+        public boolean isNull(String name) {
+            return object().isNull(name);
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.OBJECT;
+        }
+
+        @Override
+        public JsonValue get(Object name) {
+            return object().get(name);
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            return object().containsKey(name);
+        }
+
+        @Override
+        public int size() {
+            return object().size();
+        }
+
+        @Override
+        public Set<Entry<String, JsonValue>> entrySet() {
+            return object().entrySet();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || object().equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return object().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return object().toString();
+        }
+
+        @Override
+        public JsonObject asJsonObject() {
+            return this;
+        }
+    }
+
+    private static final class LazyArray extends AbstractList<JsonValue> implements JsonNumberArray {
+        private final char[] text;
+        private final int begin;
+        private final int end;
+        private final JsonKeyTable keyTable;
+        private final BufferPool bufferPool;
+        private JsonNumberArray array;  // parsed on demand
+
+        LazyArray(char[] text, int begin, int end, JsonKeyTable keyTable, BufferPool bufferPool) {
+            this.text = text;
+            this.begin = begin;
+            this.end = end;
+            this.keyTable = keyTable;
+            this.bufferPool = bufferPool;
+        }
+
+        private JsonNumberArray array() {
+            // JsonArrayImpl is immutable, at the most the level is parsed again
+            JsonNumberArray arr = array;
+            if (arr == null) {
+                array = arr = parse();
+            }
+            return arr;
+        }
+
+        private JsonNumberArray parse() {
+            try (JsonParserImpl parser = parser(text, begin, end, keyTable, bufferPool)) {
+                return readArray(parser, text, begin, keyTable, bufferPool);
+            }
+        }
+
+        @Override
+        public JsonObject getJsonObject(int index) {
+            return array().getJsonObject(index);
+        }
+
+        @Override
+        public JsonArray getJsonArray(int index) {
+            return array().getJsonArray(index);
+        }
+
+        @Override
+        public JsonNumber getJsonNumber(int index) {
+            return array().getJsonNumber(index);
+        }
+
+        @Override
+        public JsonString getJsonString(int index) {
+            return array().getJsonString(index);
+        }
+
+        @Override
+        public <T extends JsonValue> List<T> getValuesAs(Class<T> clazz) {
+            return array().getValuesAs(clazz);
+        }
+
+        @Override
+        public String getString(int index) {
+            return array().getString(index);
+        }
+
+        @Override
+        public String getString(int index, String defaultValue) {
+            return array().getString(index, defaultValue);
+        }
+
+        @Override
+        public int getInt(int index) {
+            return array().getInt(index);
+        }
+
+        @Override
+        public int getInt(int index, int defaultValue) {
+            return array().getInt(index, defaultValue);
+        }
+
+        @Override
+        public boolean getBoolean(int index) {
+            return array().getBoolean(index);
+        }
+
+        @Override
+        public boolean getBoolean(int index, boolean defaultValue) {
+            return array().getBoolean(index, defaultValue);
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return array().isNull(index);
+        }
+
+        @Override
+        public int[] toIntArray() {
+            return array().toIntArray();
+        }
+
+        @Override
+        public long[] toLongArray() {
+            return array().toLongArray();
+        }
+
+        @Override
+        public double[] toDoubleArray() {
+            return array().toDoubleArray();
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.ARRAY;
+        }
+
+        @Override
+        public JsonValue get(int index) {
+            return array().get(index);
+        }
+
+        @Override
+        public int size() {
+            return array().size();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || array().equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return array().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return array().toString();
+        }
+
+        @Override
+        public JsonArray asJsonArray() {
+            return this;
+        }
+    }
+
+}
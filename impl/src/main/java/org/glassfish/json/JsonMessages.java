@@ -86,10 +86,46 @@ final class JsonMessages {
         return localize("parser.getLong.err", event);
     }
 
+    static String PARSER_GETDOUBLE_ERR(JsonParser.Event event) {
+        return localize("parser.getDouble.err", event);
+    }
+
     static String PARSER_GETBIGDECIMAL_ERR(JsonParser.Event event) {
         return localize("parser.getBigDecimal.err", event);
     }
 
+    static String PARSER_GETOBJECT_ERR(JsonParser.Event event) {
+        return localize("parser.getObject.err", event);
+    }
+
+    static String PARSER_GETARRAY_ERR(JsonParser.Event event) {
+        return localize("parser.getArray.err", event);
+    }
+
+    static String PARSER_GETVALUE_ERR(JsonParser.Event event) {
+        return localize("parser.getValue.err", event);
+    }
+
+    static String PARSER_GETARRAYSTREAM_ERR(JsonParser.Event event) {
+        return localize("parser.getArrayStream.err", event);
+    }
+
+    static String PARSER_GETOBJECTSTREAM_ERR(JsonParser.Event event) {
+        return localize("parser.getObjectStream.err", event);
+    }
+
+    static String PARSER_GETVALUESTREAM_ERR() {
+        return localize("parser.getValueStream.err");
+    }
+
+    static String PARSER_INPUT_NEEDED() {
+        return localize("parser.input.needed");
+    }
+
+    static String PARSER_FEED_ENDED() {
+        return localize("parser.feed.ended");
+    }
+
     static String PARSER_EXPECTED_EOF(JsonTokenizer.JsonToken token) {
         return localize("parser.expected.eof", token);
     }
@@ -186,6 +222,12 @@ final class JsonMessages {
     }
 
 
+    // spliterator messages
+    static String SPLITERATOR_EXPECTED_ARRAY() {
+        return localize("spliterator.expected.array");
+    }
+
+
     private static String localize(String key, Object ... args) {
         try {
             String msg = BUNDLE.getString(key);
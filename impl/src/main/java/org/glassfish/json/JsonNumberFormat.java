@@ -0,0 +1,381 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import java.math.BigInteger;
+
+/**
+ * Formats numbers into char arrays without intermediary Strings, for the
+ * generator. The text is the same as of {@code Long.toString()},
+ * {@code BigDecimal.toString()} and {@code Double.toString()}, but a double
+ * always has the shortest decimal that rounds to it, as per the Schubfach
+ * algorithm of R. Giulietti, "The Schubfach way to render doubles".
+ */
+final class JsonNumberFormat {
+
+    // Capacity for the text of any long, double, and decimal of a long
+    // unscaled value with an int scale
+    static final int MAX_CHARS = 40;
+
+    private static final char[] LONG_MIN_VALUE_CHARS = "-9223372036854775808".toCharArray();
+
+    // "00", "01", ... "99"
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    // Constants of the binary64 format
+    private static final int P = 53;                // precision
+    private static final int Q_MIN = -1074;         // min exponent of 2
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long C_TINY = 3;           // see the paper
+    private static final int BQ_MASK = 0x7ff;
+    private static final long T_MASK = C_MIN - 1;
+    private static final long MASK_63 = 0x7fffffffffffffffL;
+
+    // Range of k in 10^-k of the table G
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    // For each k, 10^-k = beta 2^r, 2^125 <= beta < 2^126, and
+    // g = floor(beta) + 1 = G[2i] 2^63 + G[2i+1], where i = k - K_MIN
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) << 1];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i << 1] = (char)('0' + i / 10);
+            DIGIT_PAIRS[(i << 1) + 1] = (char)('0' + i % 10);
+        }
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger num = k < 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+            BigInteger den = k > 0 ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+            if (r < 0) {
+                num = num.shiftLeft(-r);
+            } else {
+                den = den.shiftLeft(r);
+            }
+            BigInteger g = num.divide(den).add(BigInteger.ONE);
+            int i = (k - K_MIN) << 1;
+            G[i] = g.shiftRight(63).longValue();
+            G[i + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private JsonNumberFormat() {
+    }
+
+    /**
+     * Writes the text of a long, as of {@code Long.toString(long)}.
+     *
+     * @return the index after the last char
+     */
+    static int formatLong(long num, char[] chars, int index) {
+        if (num == Long.MIN_VALUE) {
+            System.arraycopy(LONG_MIN_VALUE_CHARS, 0, chars, index,
+                    LONG_MIN_VALUE_CHARS.length);
+            return index + LONG_MIN_VALUE_CHARS.length;
+        }
+        if (num < 0) {
+            chars[index++] = '-';
+            num = -num;
+        }
+        int end = index + digitCount(num);
+        fillDigits(num, chars, end);
+        return end;
+    }
+
+    /**
+     * Writes the text of the decimal unscaled * 10^-scale, as of
+     * {@code BigDecimal.valueOf(unscaled, scale).toString()}.
+     *
+     * @param unscaled unscaled value, other than Long.MIN_VALUE
+     * @return the index after the last char
+     */
+    static int formatDecimal(long unscaled, int scale, char[] chars, int index) {
+        if (scale == 0) {
+            return formatLong(unscaled, chars, index);
+        }
+        if (unscaled < 0) {
+            chars[index++] = '-';
+            unscaled = -unscaled;
+        }
+        int count = digitCount(unscaled);
+        long adjusted = (long)count - 1 - scale;
+        if (scale > 0 && adjusted >= -6) {
+            int pad = scale - count;
+            if (pad >= 0) {
+                // 0.00ddd
+                chars[index++] = '0';
+                chars[index++] = '.';
+                for (int i = 0; i < pad; i++) {
+                    chars[index++] = '0';
+                }
+                fillDigits(unscaled, chars, index + count);
+                return index + count;
+            }
+            // ddd.ddd, the integer digits are moved before the point
+            fillDigits(unscaled, chars, index + count + 1);
+            System.arraycopy(chars, index + 1, chars, index, -pad);
+            chars[index - pad] = '.';
+            return index + count + 1;
+        }
+        // d.dddE+n
+        fillDigits(unscaled, chars, index + count + 1);
+        chars[index] = chars[index + 1];
+        int end = index + 1;
+        if (count > 1) {
+            chars[end] = '.';
+            end += count;
+        }
+        if (adjusted != 0) {
+            chars[end++] = 'E';
+            if (adjusted > 0) {
+                chars[end++] = '+';
+            }
+            end = formatLong(adjusted, chars, end);
+        }
+        return end;
+    }
+
+    /**
+     * Writes the shortest decimal text that rounds to a finite double, in
+     * the layout of {@code Double.toString(double)}.
+     *
+     * @return the index after the last char
+     */
+    static int formatDouble(double value, char[] chars, int index) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits < 0) {
+            chars[index++] = '-';
+        }
+        long t = bits & T_MASK;
+        int bq = (int)(bits >>> (P - 1)) & BQ_MASK;
+        if (bq != 0) {
+            // normal value, value = c 2^-mq
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq & mq < P) {
+                // integer value
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(f, 0, chars, index);
+                }
+            }
+            return toDecimal(-mq, c, 0, chars, index);
+        }
+        if (t != 0) {
+            // subnormal value
+            return t < C_TINY
+                    ? toDecimal(Q_MIN, 10 * t, -1, chars, index)
+                    : toDecimal(Q_MIN, t, 0, chars, index);
+        }
+        chars[index++] = '0';
+        chars[index++] = '.';
+        chars[index++] = '0';
+        return index;
+    }
+
+    // Finds the shortest decimal in the rounding interval of c 2^q, and
+    // the closest one if there are many. dk adjusts the exponent, for a c
+    // that is scaled by 10.
+    private static int toDecimal(int q, long c, int dk, char[] chars, int index) {
+        int out = (int)c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the interval is narrower below a power of 2
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        int i = (k - K_MIN) << 1;
+        long g1 = G[i];
+        long g0 = G[i + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // one digit less, if it is in the interval
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k + dk, chars, index);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, chars, index);
+        }
+        long cmp = vb - (s + t << 1);
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk,
+                chars, index);
+    }
+
+    // Rounds g cp 2^-127 to odd, where g = g1 2^63 + g0
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // Writes f 10^e, f > 0, like Double.toString() does
+    private static int toChars(long f, int e, char[] chars, int index) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int count = digitCount(f);
+        // f 10^e = 0.ddd 10^exp
+        int exp = e + count;
+        if (0 < exp && exp <= 7) {
+            if (count <= exp) {
+                // ddd00.0
+                fillDigits(f, chars, index + count);
+                index += count;
+                for (int i = count; i < exp; i++) {
+                    chars[index++] = '0';
+                }
+                chars[index++] = '.';
+                chars[index++] = '0';
+                return index;
+            }
+            // ddd.ddd
+            fillDigits(f, chars, index + count + 1);
+            System.arraycopy(chars, index + 1, chars, index, exp);
+            chars[index + exp] = '.';
+            return index + count + 1;
+        }
+        if (-3 < exp && exp <= 0) {
+            // 0.00ddd
+            chars[index++] = '0';
+            chars[index++] = '.';
+            for (int i = exp; i < 0; i++) {
+                chars[index++] = '0';
+            }
+            fillDigits(f, chars, index + count);
+            return index + count;
+        }
+        // d.dddEn
+        fillDigits(f, chars, index + count + 1);
+        chars[index] = chars[index + 1];
+        chars[index + 1] = '.';
+        int end = index + count + 1;
+        if (count == 1) {
+            chars[end++] = '0';
+        }
+        chars[end++] = 'E';
+        return formatLong(exp - 1, chars, end);
+    }
+
+    // Number of the decimal digits of num >= 0
+    private static int digitCount(long num) {
+        int count = 1;
+        long pow10 = 10;
+        while (count < 19 && num >= pow10) {
+            count++;
+            pow10 *= 10;
+        }
+        return count;
+    }
+
+    // Fills the digits of num >= 0 backwards, ending before the end index
+    private static void fillDigits(long num, char[] chars, int end) {
+        while (num >= 100) {
+            int r = (int)(num % 100) << 1;
+            num /= 100;
+            chars[--end] = DIGIT_PAIRS[r + 1];
+            chars[--end] = DIGIT_PAIRS[r];
+        }
+        int r = (int)num;
+        if (r >= 10) {
+            chars[--end] = DIGIT_PAIRS[(r << 1) + 1];
+            chars[--end] = DIGIT_PAIRS[r << 1];
+        } else {
+            chars[--end] = (char)('0' + r);
+        }
+    }
+
+    // floor(q log10(2))
+    private static int flog10pow2(int q) {
+        return (int)(q * 661971961083L >> 41);
+    }
+
+    // floor(q log10(2) + log10(3/4))
+    private static int flog10threeQuartersPow2(int q) {
+        return (int)(q * 661971961083L + -274743187321L >> 41);
+    }
+
+    // floor(e log2(10))
+    private static int flog2pow10(int e) {
+        return (int)(e * 913124641741L >> 38);
+    }
+
+    // Math.multiplyHigh() of Java 9
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xffffffffL;
+        long y1 = y >> 32;
+        long y2 = y & 0xffffffffL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xffffffffL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+}
@@ -46,12 +46,25 @@ import java.math.BigInteger;
 
 /**
  * JsonNumber impl. Subclasses provide optimized implementations
- * when backed by int, long, BigDecimal
+ * when backed by int, long, double, BigDecimal
  *
  * @author Jitendra Kotamraju
  */
 abstract class JsonNumberImpl implements JsonNumber {
 
+    // Kinds of primitives that hold a number exactly, see JsonNumberList
+    static final int KIND_INT = 0;
+    static final int KIND_LONG = 1;
+    static final int KIND_DOUBLE = 2;       // with the number of fraction digits
+    static final int KIND_NONE = 3;
+
+    // Powers of ten that are exactly representable as double
+    static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+        1e21, 1e22
+    };
+
     static JsonNumber getJsonNumber(int num) {
         return new JsonIntNumber(num);
     }
@@ -70,6 +83,13 @@ abstract class JsonNumberImpl implements JsonNumber {
         return new JsonBigDecimalNumber(BigDecimal.valueOf(value));
     }
 
+    // Number with the given number of fraction digits, whose value is
+    // the nearest double to it. Only for numbers with up to 15 significant
+    // digits, so that the digits are recovered exactly from the double.
+    static JsonNumber getJsonNumber(double value, int scale) {
+        return new JsonDoubleNumber(value, scale);
+    }
+
     static JsonNumber getJsonNumber(BigDecimal value) {
         return new JsonBigDecimalNumber(value);
     }
@@ -128,6 +148,16 @@ abstract class JsonNumberImpl implements JsonNumber {
         public String toString() {
             return Integer.toString(num);
         }
+
+        @Override
+        int primitiveKind() {
+            return KIND_INT;
+        }
+
+        @Override
+        long unscaledValue() {
+            return num;
+        }
     }
 
     // Optimized JsonNumber impl for long numbers.
@@ -175,6 +205,76 @@ abstract class JsonNumberImpl implements JsonNumber {
             return Long.toString(num);
         }
 
+        @Override
+        int primitiveKind() {
+            return KIND_LONG;
+        }
+
+        @Override
+        long unscaledValue() {
+            return num;
+        }
+
+    }
+
+    // Optimized JsonNumber impl for decimal fractions that are parsed.
+    private static final class JsonDoubleNumber extends JsonNumberImpl {
+        private final double num;
+        private final int scale;
+        private BigDecimal bigDecimal;  // assigning it lazily on demand
+
+        JsonDoubleNumber(double num, int scale) {
+            this.num = num;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean isIntegral() {
+            return false;       // there is at least one fraction digit
+        }
+
+        @Override
+        int primitiveKind() {
+            return KIND_DOUBLE;
+        }
+
+        @Override
+        int fractionDigits() {
+            return scale;
+        }
+
+        @Override
+        long unscaledValue() {
+            // the error of the double is too small to change the digits
+            return Math.round(num * POW10[scale]);
+        }
+
+        @Override
+        public int intValue() {
+            return (int)longValue();
+        }
+
+        @Override
+        public long longValue() {
+            return (long)num;
+        }
+
+        @Override
+        public double doubleValue() {
+            return num;
+        }
+
+        @Override
+        public BigDecimal bigDecimalValue() {
+            // reference assignments are atomic. At the most some more temp
+            // BigDecimal objects are created
+            BigDecimal bd = bigDecimal;
+            if (bd == null) {
+                bigDecimal = bd = BigDecimal.valueOf(unscaledValue(), scale);
+            }
+            return bd;
+        }
+
     }
 
     // JsonNumber impl using BigDecimal numbers.
@@ -192,6 +292,21 @@ abstract class JsonNumberImpl implements JsonNumber {
 
     }
 
+    int primitiveKind() {
+        return KIND_NONE;
+    }
+
+    // number of fraction digits of a KIND_DOUBLE number
+    int fractionDigits() {
+        return 0;
+    }
+
+    // unscaled value of the BigDecimal of the number. The numbers that have
+    // a primitive kind override it to avoid the BigDecimal
+    long unscaledValue() {
+        return bigDecimalValue().unscaledValue().longValueExact();
+    }
+
     @Override
     public boolean isIntegral() {
         return bigDecimalValue().scale() == 0;
@@ -239,9 +354,20 @@ abstract class JsonNumberImpl implements JsonNumber {
 
     @Override
     public int hashCode() {
+        if (primitiveKind() != KIND_NONE && unscaledValue() != Long.MIN_VALUE) {
+            return hashCode(unscaledValue(), fractionDigits());
+        }
         return bigDecimalValue().hashCode();
     }
 
+    // Same as BigDecimal.hashCode(), without the BigDecimal. The unscaled
+    // value must not be Long.MIN_VALUE
+    static int hashCode(long unscaled, int scale) {
+        long abs = Math.abs(unscaled);
+        int temp = (int)(((int)(abs >>> 32)) * 31 + (abs & 0xFFFFFFFFL));
+        return 31 * ((unscaled < 0) ? -temp : temp) + scale;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj){
@@ -250,6 +376,14 @@ abstract class JsonNumberImpl implements JsonNumber {
         if (!(obj instanceof JsonNumber)) {
             return false;
         }
+        if (obj instanceof JsonNumberImpl) {
+            JsonNumberImpl other = (JsonNumberImpl)obj;
+            if (primitiveKind() != KIND_NONE && other.primitiveKind() != KIND_NONE) {
+                // BigDecimal.equals() compares the unscaled values and scales
+                return unscaledValue() == other.unscaledValue()
+                        && fractionDigits() == other.fractionDigits();
+            }
+        }
         JsonNumber other = (JsonNumber)obj;
         return bigDecimalValue().equals(other.bigDecimalValue());
     }
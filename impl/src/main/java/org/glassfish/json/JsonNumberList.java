@@ -0,0 +1,326 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import javax.json.JsonNumber;
+import javax.json.JsonValue;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list of numbers that is backed by a primitive array, for the
+ * values of a JsonArray that are all numbers. The JsonNumber of an element
+ * is created when it is accessed.
+ */
+abstract class JsonNumberList extends AbstractList<JsonValue> implements RandomAccess {
+
+    /*
+     * Returns a primitive backed list with the same values if all the values
+     * are int, long or decimal fraction numbers that a primitive holds
+     * exactly, otherwise returns null.
+     */
+    static JsonNumberList of(List<JsonValue> values) {
+        int size = values.size();
+        if (size == 0) {
+            return null;
+        }
+        boolean longs = false;
+        boolean doubles = false;
+        for (int i = 0; i < size; i++) {
+            JsonValue value = values.get(i);
+            if (!(value instanceof JsonNumberImpl)) {
+                return null;
+            }
+            switch (kind((JsonNumberImpl)value)) {
+                case JsonNumberImpl.KIND_INT:
+                    break;
+                case JsonNumberImpl.KIND_LONG:
+                    longs = true;
+                    break;
+                case JsonNumberImpl.KIND_DOUBLE:
+                    doubles = true;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        if (longs && doubles) {
+            return null;
+        } else if (longs) {
+            long[] nums = new long[size];
+            for (int i = 0; i < size; i++) {
+                nums[i] = ((JsonNumber)values.get(i)).longValue();
+            }
+            return new LongList(nums);
+        } else if (doubles) {
+            double[] nums = new double[size];
+            byte[] scales = new byte[size];
+            for (int i = 0; i < size; i++) {
+                JsonNumberImpl num = (JsonNumberImpl)values.get(i);
+                nums[i] = num.doubleValue();
+                scales[i] = (byte)num.fractionDigits();
+            }
+            return new DoubleList(nums, scales);
+        } else {
+            int[] nums = new int[size];
+            for (int i = 0; i < size; i++) {
+                nums[i] = ((JsonNumber)values.get(i)).intValue();
+            }
+            return new IntList(nums);
+        }
+    }
+
+    // long numbers that are in the range of int are held as int
+    private static int kind(JsonNumberImpl num) {
+        int kind = num.primitiveKind();
+        if (kind == JsonNumberImpl.KIND_LONG) {
+            long value = num.longValue();
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return JsonNumberImpl.KIND_INT;
+            }
+        }
+        return kind;
+    }
+
+    abstract int[] toIntArray();
+
+    abstract long[] toLongArray();
+
+    abstract double[] toDoubleArray();
+
+    private static final class IntList extends JsonNumberList {
+        private final int[] nums;
+
+        IntList(int[] nums) {
+            this.nums = nums;
+        }
+
+        @Override
+        public JsonValue get(int index) {
+            return JsonNumberImpl.getJsonNumber(nums[index]);
+        }
+
+        @Override
+        public int size() {
+            return nums.length;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 1;
+            for (int num : nums) {
+                h = 31 * h + JsonNumberImpl.hashCode(num, 0);
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof IntList)
+                    ? Arrays.equals(nums, ((IntList)obj).nums)
+                    : super.equals(obj);
+        }
+
+        @Override
+        int[] toIntArray() {
+            return nums.clone();
+        }
+
+        @Override
+        long[] toLongArray() {
+            long[] result = new long[nums.length];
+            for (int i = 0; i < nums.length; i++) {
+                result[i] = nums[i];
+            }
+            return result;
+        }
+
+        @Override
+        double[] toDoubleArray() {
+            double[] result = new double[nums.length];
+            for (int i = 0; i < nums.length; i++) {
+                result[i] = nums[i];
+            }
+            return result;
+        }
+    }
+
+    private static final class LongList extends JsonNumberList {
+        private final long[] nums;
+
+        LongList(long[] nums) {
+            this.nums = nums;
+        }
+
+        @Override
+        public JsonValue get(int index) {
+            return JsonNumberImpl.getJsonNumber(nums[index]);
+        }
+
+        @Override
+        public int size() {
+            return nums.length;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 1;
+            for (long num : nums) {
+                h = 31 * h + ((num != Long.MIN_VALUE)
+                        ? JsonNumberImpl.hashCode(num, 0)
+                        : JsonNumberImpl.getJsonNumber(num).hashCode());
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof LongList)
+                    ? Arrays.equals(nums, ((LongList)obj).nums)
+                    : super.equals(obj);
+        }
+
+        @Override
+        int[] toIntArray() {
+            int[] result = new int[nums.length];
+            for (int i = 0; i < nums.length; i++) {
+                result[i] = (int)nums[i];
+            }
+            return result;
+        }
+
+        @Override
+        long[] toLongArray() {
+            return nums.clone();
+        }
+
+        @Override
+        double[] toDoubleArray() {
+            double[] result = new double[nums.length];
+            for (int i = 0; i < nums.length; i++) {
+                result[i] = nums[i];
+            }
+            return result;
+        }
+    }
+
+    // Numbers with 0 fraction digits are the int numbers
+    private static final class DoubleList extends JsonNumberList {
+        private final double[] nums;
+        private final byte[] scales;
+
+        DoubleList(double[] nums, byte[] scales) {
+            this.nums = nums;
+            this.scales = scales;
+        }
+
+        @Override
+        public JsonValue get(int index) {
+            int scale = scales[index];
+            return (scale == 0)
+                    ? JsonNumberImpl.getJsonNumber((int)nums[index])
+                    : JsonNumberImpl.getJsonNumber(nums[index], scale);
+        }
+
+        @Override
+        public int size() {
+            return nums.length;
+        }
+
+        // unscaled value of the BigDecimal of the number
+        private long unscaledValue(int index) {
+            return Math.round(nums[index] * JsonNumberImpl.POW10[scales[index]]);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 1;
+            for (int i = 0; i < nums.length; i++) {
+                h = 31 * h + JsonNumberImpl.hashCode(unscaledValue(i), scales[i]);
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DoubleList)) {
+                return super.equals(obj);
+            }
+            DoubleList other = (DoubleList)obj;
+            if (!Arrays.equals(scales, other.scales)) {
+                return false;
+            }
+            for (int i = 0; i < nums.length; i++) {
+                // 0.0 and -0.0 are the same number
+                if (nums[i] != other.nums[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int[] toIntArray() {
+            int[] result = new int[nums.length];
+            for (int i = 0; i < nums.length; i++) {
+                result[i] = (int)(long)nums[i];
+            }
+            return result;
+        }
+
+        @Override
+        long[] toLongArray() {
+            long[] result = new long[nums.length];
+            for (int i = 0; i < nums.length; i++) {
+                result[i] = (long)nums[i];
+            }
+            return result;
+        }
+
+        @Override
+        double[] toDoubleArray() {
+            return nums.clone();
+        }
+    }
+
+}
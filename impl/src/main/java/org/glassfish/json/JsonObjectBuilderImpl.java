@@ -45,9 +45,11 @@ import org.glassfish.json.api.BufferPool;
 import javax.json.JsonArrayBuilder;
 import javax.json.*;
 import java.io.StringWriter;
+import java.lang.ref.SoftReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * JsonObjectBuilder implementation
@@ -56,7 +58,13 @@ import java.util.*;
  * @author Kin-man Chung
  */
 class JsonObjectBuilderImpl implements JsonObjectBuilder {
+    // A builder from an object of at least this size updates a persistent
+    // object, instead of a copy of all the members
+    private static final int MIN_PERSISTENT_SIZE = 32;
+
     private Map<String, JsonValue> valueMap;
+    // Used instead of valueMap, when the builder is from a large object
+    private JsonPersistentObject persistent;
     private final BufferPool bufferPool;
 
     JsonObjectBuilderImpl(BufferPool bufferPool) {
@@ -65,8 +73,12 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder {
 
     JsonObjectBuilderImpl(JsonObject object, BufferPool bufferPool) {
         this.bufferPool = bufferPool;
-        valueMap = new LinkedHashMap<>();
-        valueMap.putAll(object);
+        if (object instanceof JsonPersistentObject || object.size() >= MIN_PERSISTENT_SIZE) {
+            persistent = JsonPersistentObject.of(object, bufferPool);
+        } else {
+            valueMap = new LinkedHashMap<>();
+            valueMap.putAll(object);
+        }
     }
 
     @Override
@@ -161,30 +173,50 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder {
         if (builder == null) {
             throw new NullPointerException(JsonMessages.OBJBUILDER_OBJECT_BUILDER_NULL());
         }
+        JsonObject object = builder.build();
+        if (persistent != null) {
+            for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+                persistent = persistent.with(entry.getKey(), entry.getValue());
+            }
+            return this;
+        }
         if (valueMap == null) {
             this.valueMap = new LinkedHashMap<>();
         }
-        this.valueMap.putAll(builder.build());
+        this.valueMap.putAll(object);
         return this;
     }
 
     @Override
     public JsonObjectBuilder remove(String name) {
         validateName(name);
+        if (persistent != null) {
+            persistent = persistent.without(name);
+            return this;
+        }
         this.valueMap.remove(name);
         return this;
     }
 
     @Override
     public JsonObject build() {
+        if (persistent != null) {
+            JsonObject result = persistent;
+            persistent = null;
+            return result;
+        }
         Map<String, JsonValue> snapshot = (valueMap == null)
                 ? Collections.<String, JsonValue>emptyMap()
-                : Collections.unmodifiableMap(valueMap);
+                : valueMap;
         valueMap = null;
         return new JsonObjectImpl(snapshot, bufferPool);
     }
 
     private void putValueMap(String name, JsonValue value) {
+        if (persistent != null) {
+            persistent = persistent.with(name, value);
+            return;
+        }
         if (valueMap == null) {
             this.valueMap = new LinkedHashMap<>();
         }
@@ -203,15 +235,154 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder {
         }
     }
 
-    private static final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements JsonObject {
-        private final Map<String, JsonValue> valueMap;      // unmodifiable
+    /*
+     * Immutable object that keeps the names and values in insertion order
+     * in two arrays, instead of the entries of a LinkedHashMap. A name is
+     * found by a linear scan in small objects, and using an open addressing
+     * hash index of the positions in larger objects.
+     */
+    static final class JsonObjectImpl extends AbstractMap<String, JsonValue>
+            implements JsonObject, JsonSerializedText {
+        // Objects up to this size don't have the hash index
+        private static final int MAX_LINEAR_SCAN = 8;
+        private static final String[] NO_NAMES = new String[0];
+        private static final JsonValue[] NO_VALUES = new JsonValue[0];
+
+        private final String[] names;
+        private final JsonValue[] values;
+        // Hash table of position+1 of the names, 0 for a free slot
+        private final int[] index;
         private final BufferPool bufferPool;
+        private int hash;       // cached hashCode(), 0 if not computed
+        // text kept by a generator, released under memory pressure
+        private SoftReference<String> text;
 
         JsonObjectImpl(Map<String, JsonValue> valueMap, BufferPool bufferPool) {
-            this.valueMap = valueMap;
+            int size = valueMap.size();
+            String[] names = (size == 0) ? NO_NAMES : new String[size];
+            JsonValue[] values = (size == 0) ? NO_VALUES : new JsonValue[size];
+            int i = 0;
+            for (Map.Entry<String, JsonValue> entry : valueMap.entrySet()) {
+                names[i] = entry.getKey();
+                values[i++] = entry.getValue();
+            }
+            this.names = names;
+            this.values = values;
+            this.index = (size > MAX_LINEAR_SCAN) ? new int[tableSize(size)] : null;
+            if (index != null) {
+                for (i = 0; i < size; i++) {
+                    index[-find(names[i]) - 1] = i + 1;
+                }
+            }
+            this.bufferPool = bufferPool;
+        }
+
+        /*
+         * Takes over the arrays with the first len names and values, in the
+         * order they are read. For a repeated name, the last value is kept at
+         * the position of the first one.
+         */
+        JsonObjectImpl(String[] names, JsonValue[] values, int len, BufferPool bufferPool) {
+            this.index = (len > MAX_LINEAR_SCAN) ? new int[tableSize(len)] : null;
+            int size = 0;
+            for (int i = 0; i < len; i++) {
+                String name = names[i];
+                int position = (index == null) ? linearFind(names, size, name) : find(names, name);
+                if (position >= 0) {
+                    values[position] = values[i];
+                    continue;
+                }
+                names[size] = name;
+                values[size] = values[i];
+                if (index != null) {
+                    index[-position - 1] = size + 1;
+                }
+                size++;
+            }
+            this.names = (size == 0) ? NO_NAMES : (size == names.length) ? names : Arrays.copyOf(names, size);
+            this.values = (size == 0) ? NO_VALUES : (size == values.length) ? values : Arrays.copyOf(values, size);
             this.bufferPool = bufferPool;
         }
 
+        // Power of two, at least twice the size
+        private static int tableSize(int size) {
+            return Integer.highestOneBit(size) << 2;
+        }
+
+        private static int linearFind(String[] names, int size, Object name) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int find(Object name) {
+            return find(names, name);
+        }
+
+        // Returns the position of the name, or -(slot+1) of the free slot for it
+        private int find(String[] names, Object name) {
+            int mask = index.length - 1;
+            int hash = name.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            int position;
+            while ((position = index[slot]) != 0) {
+                String other = names[position - 1];
+                if (other == name || other.equals(name)) {
+                    return position - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -slot - 1;
+        }
+
+        private int indexOf(Object name) {
+            if (name == null) {
+                return -1;
+            }
+            if (index == null) {
+                for (int i = 0; i < names.length; i++) {
+                    // key names from the same parser are often the same instance
+                    if (names[i] == name || names[i].equals(name)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int position = find(name);
+            return (position >= 0) ? position : -1;
+        }
+
+        @Override
+        public JsonValue get(Object name) {
+            int i = indexOf(name);
+            return (i >= 0) ? values[i] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            return indexOf(name) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return names.length == 0;
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super JsonValue> action) {
+            for (int i = 0; i < names.length; i++) {
+                action.accept(names[i], values[i]);
+            }
+        }
+
         @Override
         public JsonArray getJsonArray(String name) {
             return (JsonArray)get(name);
@@ -295,16 +466,93 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder {
 
         @Override
         public Set<Entry<String, JsonValue>> entrySet() {
-            return valueMap.entrySet();
+            return new AbstractSet<Entry<String, JsonValue>>() {
+                @Override
+                public Iterator<Entry<String, JsonValue>> iterator() {
+                    return new Iterator<Entry<String, JsonValue>>() {
+                        private int i;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < names.length;
+                        }
+
+                        @Override
+                        public Entry<String, JsonValue> next() {
+                            if (i >= names.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, JsonValue> entry =
+                                    new SimpleImmutableEntry<>(names[i], values[i]);
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names.length;
+                }
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            // the object is immutable, at the most it is computed again
+            int h = hash;
+            if (h == 0) {
+                for (int i = 0; i < names.length; i++) {
+                    h += names[i].hashCode() ^ values[i].hashCode();
+                }
+                hash = h;
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof JsonObjectImpl || obj instanceof JsonPersistentObject) {
+                // the hash codes are cached, and differ for most unequal objects
+                Map<?, ?> other = (Map<?, ?>)obj;
+                if (other.size() != names.length || other.hashCode() != hashCode()) {
+                    return false;
+                }
+                for (int i = 0; i < names.length; i++) {
+                    if (!values[i].equals(other.get(names[i]))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return super.equals(obj);
         }
 
         @Override
         public String toString() {
-            StringWriter sw = new StringWriter();
-            try (JsonWriter jw = new JsonWriterImpl(sw, bufferPool)) {
-                jw.write(this);
+            String str = getSerializedText();
+            if (str == null) {
+                StringWriter sw = new StringWriter();
+                try (JsonWriter jw = new JsonWriterImpl(sw, bufferPool)) {
+                    jw.write(this);
+                }
+                str = sw.toString();
             }
-            return sw.toString();
+            return str;
+        }
+
+        @Override
+        public String getSerializedText() {
+            SoftReference<String> ref = text;
+            return ref == null ? null : ref.get();
+        }
+
+        @Override
+        public void setSerializedText(String str) {
+            text = new SoftReference<>(str);
         }
 
         @Override
@@ -56,26 +56,36 @@ import java.util.Map;
  * @author Jitendra Kotamraju
  */
 class JsonParserFactoryImpl implements JsonParserFactory {
-    private final Map<String, ?> config = Collections.emptyMap();
+    private final Map<String, ?> config;    // unmodifiable map
+    private final boolean multipleDocuments;
+    private final JsonKeyTable keyTable;    // null when key names are not shared
     private final BufferPool bufferPool;
 
     JsonParserFactoryImpl(BufferPool bufferPool) {
+        this(Collections.<String, Object>emptyMap(), false, null, bufferPool);
+    }
+
+    JsonParserFactoryImpl(Map<String, ?> config, boolean multipleDocuments,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        this.config = config;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
         this.bufferPool = bufferPool;
     }
 
     @Override
     public JsonParser createParser(Reader reader) {
-        return new JsonParserImpl(reader, bufferPool);
+        return new JsonParserImpl(reader, multipleDocuments, keyTable, bufferPool);
     }
 
     @Override
     public JsonParser createParser(InputStream in) {
-        return new JsonParserImpl(in, bufferPool);
+        return new JsonParserImpl(in, multipleDocuments, keyTable, bufferPool);
     }
 
     @Override
     public JsonParser createParser(InputStream in, Charset charset) {
-        return new JsonParserImpl(in, charset, bufferPool);
+        return new JsonParserImpl(in, charset, multipleDocuments, keyTable, bufferPool);
     }
 
     @Override
@@ -47,7 +47,11 @@ import javax.json.stream.JsonParsingException;
 import java.io.*;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.glassfish.json.JsonTokenizer.JsonToken;
 import org.glassfish.json.api.BufferPool;
@@ -66,26 +70,78 @@ public class JsonParserImpl implements JsonParser {
     private final Stack stack = new Stack();
     private final StateIterator stateIterator;
     private final JsonTokenizer tokenizer;
+    private final BufferPool bufferPool;
+
+    // Whether a sequence of JSON texts is parsed
+    private final boolean multipleDocuments;
+    // Shared key names, null when every key name is a new String
+    private final JsonKeyTable keyTable;
+    // First token of the next JSON text, read by hasNext()
+    private JsonToken pendingToken;
 
     public JsonParserImpl(Reader reader, BufferPool bufferPool) {
-        tokenizer = new JsonTokenizer(reader, bufferPool);
+        this(reader, false, null, bufferPool);
+    }
+
+    JsonParserImpl(Reader reader, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
+        tokenizer = new JsonCharTokenizer(reader, bufferPool);
         stateIterator = new StateIterator();
     }
 
     public JsonParserImpl(InputStream in, BufferPool bufferPool) {
+        this(in, false, null, bufferPool);
+    }
+
+    JsonParserImpl(InputStream in, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
         UnicodeDetectingInputStream uin = new UnicodeDetectingInputStream(in);
-        tokenizer = new JsonTokenizer(new InputStreamReader(uin, uin.getCharset()), bufferPool);
+        Charset encoding = uin.getCharset();
+        tokenizer = (encoding == StandardCharsets.UTF_8)
+                ? new JsonUtf8Tokenizer(uin, bufferPool)
+                : new JsonCharTokenizer(new InputStreamReader(uin, encoding), bufferPool);
         stateIterator = new StateIterator();
     }
 
     public JsonParserImpl(InputStream in, Charset encoding, BufferPool bufferPool) {
-        tokenizer = new JsonTokenizer(new InputStreamReader(in, encoding), bufferPool);
+        this(in, encoding, false, null, bufferPool);
+    }
+
+    JsonParserImpl(InputStream in, Charset encoding, boolean multipleDocuments,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
+        tokenizer = StandardCharsets.UTF_8.equals(encoding)
+                ? new JsonUtf8Tokenizer(in, bufferPool)
+                : new JsonCharTokenizer(new InputStreamReader(in, encoding), bufferPool);
         stateIterator = new StateIterator();
     }
 
+    // Parser on a tokenizer that is set up by the caller, for e.g. JsonFeedTokenizer
+    JsonParserImpl(JsonTokenizer tokenizer, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
+        this.tokenizer = tokenizer;
+        stateIterator = new StateIterator();
+    }
+
+    Event currentEvent() {
+        return currentEvent;
+    }
+
     public String getString() {
-        if (currentEvent == Event.KEY_NAME || currentEvent == Event.VALUE_STRING
-                || currentEvent == Event.VALUE_NUMBER) {
+        if (currentEvent == Event.KEY_NAME) {
+            return getKeyName();
+        } else if (currentEvent == Event.VALUE_STRING || currentEvent == Event.VALUE_NUMBER) {
             return tokenizer.getValue();
         }
         throw new IllegalStateException(
@@ -120,7 +176,25 @@ public class JsonParserImpl implements JsonParser {
             throw new IllegalStateException(
                     JsonMessages.PARSER_GETLONG_ERR(currentEvent));
         }
-        return tokenizer.getBigDecimal().longValue();
+        return tokenizer.getLong();
+    }
+
+    /**
+     * Returns a JSON number as a double, without creating a
+     * {@code BigDecimal} for most numbers. The returned value is equal to
+     * {@code getBigDecimal().doubleValue()}, that is the double value that
+     * is nearest to the number.
+     *
+     * @return a double for a JSON number
+     * @throws IllegalStateException when the parser state is not
+     *      {@code VALUE_NUMBER}
+     */
+    public double getDouble() {
+        if (currentEvent != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETDOUBLE_ERR(currentEvent));
+        }
+        return tokenizer.getDouble();
     }
 
     @Override
@@ -132,6 +206,254 @@ public class JsonParserImpl implements JsonParser {
         return tokenizer.getBigDecimal();
     }
 
+    @Override
+    public JsonObject getObject() {
+        if (currentEvent != Event.START_OBJECT) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETOBJECT_ERR(currentEvent));
+        }
+        return readObject();
+    }
+
+    @Override
+    public JsonArray getArray() {
+        if (currentEvent != Event.START_ARRAY) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETARRAY_ERR(currentEvent));
+        }
+        return readArray();
+    }
+
+    @Override
+    public JsonValue getValue() {
+        if (currentEvent == null) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETVALUE_ERR(currentEvent));
+        }
+        switch (currentEvent) {
+            case START_ARRAY:
+                return readArray();
+            case START_OBJECT:
+                return readObject();
+            case KEY_NAME:
+                return new JsonStringImpl(getKeyName());
+            case VALUE_STRING:
+                return new JsonStringImpl(tokenizer.getValue());
+            case VALUE_NUMBER:
+                return readNumber();
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                throw new IllegalStateException(
+                        JsonMessages.PARSER_GETVALUE_ERR(currentEvent));
+        }
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        if (currentEvent != Event.START_ARRAY) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETARRAYSTREAM_ERR(currentEvent));
+        }
+        Spliterator<JsonValue> spliterator =
+                new Spliterators.AbstractSpliterator<JsonValue>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super JsonValue> action) {
+                if (action == null) {
+                    throw new NullPointerException();
+                }
+                if (done || next() == Event.END_ARRAY) {
+                    done = true;
+                    return false;
+                }
+                action.accept(getValue());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonValue>> getObjectStream() {
+        if (currentEvent != Event.START_OBJECT) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETOBJECTSTREAM_ERR(currentEvent));
+        }
+        Spliterator<Map.Entry<String, JsonValue>> spliterator =
+                new Spliterators.AbstractSpliterator<Map.Entry<String, JsonValue>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Map.Entry<String, JsonValue>> action) {
+                if (action == null) {
+                    throw new NullPointerException();
+                }
+                if (done || next() == Event.END_OBJECT) {
+                    done = true;
+                    return false;
+                }
+                String key = getString();
+                next();
+                action.accept(new AbstractMap.SimpleImmutableEntry<>(key, getValue()));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public Stream<JsonValue> getValueStream() {
+        if (!(currentContext instanceof NoneContext)) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETVALUESTREAM_ERR());
+        }
+        Spliterator<JsonValue> spliterator =
+                new Spliterators.AbstractSpliterator<JsonValue>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super JsonValue> action) {
+                if (action == null) {
+                    throw new NullPointerException();
+                }
+                if (!hasNext()) {
+                    return false;
+                }
+                next();
+                action.accept(getValue());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public void skipArray() {
+        if (currentContext instanceof ArrayContext) {
+            tokenizer.skip(true);
+            currentContext = stack.pop();
+            currentEvent = Event.END_ARRAY;
+        }
+    }
+
+    @Override
+    public void skipObject() {
+        if (currentContext instanceof ObjectContext) {
+            tokenizer.skip(false);
+            currentContext = stack.pop();
+            currentEvent = Event.END_OBJECT;
+        }
+    }
+
+    // Builds the array directly from the events, the parser is positioned
+    // on START_ARRAY and is left on the matching END_ARRAY
+    private JsonArray readArray() {
+        List<JsonValue> list = new ArrayList<>();
+        while(stateIterator.hasNext()) {
+            Event e = stateIterator.next();
+            switch (e) {
+                case START_ARRAY:
+                    list.add(readArray());
+                    break;
+                case START_OBJECT:
+                    list.add(readObject());
+                    break;
+                case VALUE_STRING:
+                    list.add(new JsonStringImpl(tokenizer.getValue()));
+                    break;
+                case VALUE_NUMBER:
+                    list.add(readNumber());
+                    break;
+                case VALUE_TRUE:
+                    list.add(JsonValue.TRUE);
+                    break;
+                case VALUE_FALSE:
+                    list.add(JsonValue.FALSE);
+                    break;
+                case VALUE_NULL:
+                    list.add(JsonValue.NULL);
+                    break;
+                case END_ARRAY:
+                    // numbers are kept in a primitive array
+                    List<JsonValue> numbers = JsonNumberList.of(list);
+                    return new JsonArrayBuilderImpl.JsonArrayImpl(
+                            (numbers != null) ? numbers : Collections.unmodifiableList(list),
+                            bufferPool);
+                default:
+                    throw new JsonException("Internal Error");
+            }
+        }
+        throw new JsonException("Internal Error");
+    }
+
+    // Builds the object directly from the events, the parser is positioned
+    // on START_OBJECT and is left on the matching END_OBJECT
+    private JsonObject readObject() {
+        // names and values in the order they are read, for JsonObjectImpl
+        String[] names = new String[8];
+        JsonValue[] values = new JsonValue[8];
+        int len = 0;
+        while(stateIterator.hasNext()) {
+            Event e = stateIterator.next();
+            JsonValue value;
+            switch (e) {
+                case KEY_NAME:
+                    if (len == names.length) {
+                        names = Arrays.copyOf(names, 2 * len);
+                        values = Arrays.copyOf(values, 2 * len);
+                    }
+                    names[len] = getKeyName();
+                    continue;
+                case START_ARRAY:
+                    value = readArray();
+                    break;
+                case START_OBJECT:
+                    value = readObject();
+                    break;
+                case VALUE_STRING:
+                    value = new JsonStringImpl(tokenizer.getValue());
+                    break;
+                case VALUE_NUMBER:
+                    value = readNumber();
+                    break;
+                case VALUE_TRUE:
+                    value = JsonValue.TRUE;
+                    break;
+                case VALUE_FALSE:
+                    value = JsonValue.FALSE;
+                    break;
+                case VALUE_NULL:
+                    value = JsonValue.NULL;
+                    break;
+                case END_OBJECT:
+                    return new JsonObjectBuilderImpl.JsonObjectImpl(names, values, len, bufferPool);
+                default:
+                    throw new JsonException("Internal Error");
+            }
+            values[len++] = value;
+        }
+        throw new JsonException("Internal Error");
+    }
+
+    private String getKeyName() {
+        return (keyTable == null) ? tokenizer.getValue() : tokenizer.getValue(keyTable);
+    }
+
+    private JsonNumber readNumber() {
+        if (tokenizer.isDefinitelyInt()) {
+            return JsonNumberImpl.getJsonNumber(tokenizer.getInt());
+        } else if (tokenizer.isLong()) {
+            return JsonNumberImpl.getJsonNumber(tokenizer.getLong());
+        } else if (tokenizer.isDefinitelyDouble()) {
+            return JsonNumberImpl.getJsonNumber(tokenizer.getDouble(), tokenizer.getScale());
+        }
+        return JsonNumberImpl.getJsonNumber(tokenizer.getBigDecimal());
+    }
+
     @Override
     public JsonLocation getLocation() {
         return tokenizer.getLocation();
@@ -153,6 +475,17 @@ public class JsonParserImpl implements JsonParser {
 
         @Override
         public boolean hasNext() {
+            if (multipleDocuments) {
+                if (stack.isEmpty() && pendingToken == null) {
+                    // Between the texts, peek whether another one follows
+                    JsonToken token = tokenizer.nextToken();
+                    if (token == JsonToken.EOF) {
+                        return false;
+                    }
+                    pendingToken = token;
+                }
+                return true;
+            }
             if (stack.isEmpty() && (currentEvent == Event.END_ARRAY || currentEvent == Event.END_OBJECT)) {
                 JsonToken token = tokenizer.nextToken();
                 if (token != JsonToken.EOF) {
@@ -219,7 +552,12 @@ public class JsonParserImpl implements JsonParser {
         @Override
         public Event getNextEvent() {
             // Handle 1. {     2. [
-            JsonToken token = tokenizer.nextToken();
+            JsonToken token = pendingToken;
+            if (token != null) {
+                pendingToken = null;
+            } else {
+                token = tokenizer.nextToken();
+            }
             if (token == JsonToken.CURLYOPEN) {
                 stack.push(currentContext);
                 currentContext = new ObjectContext();
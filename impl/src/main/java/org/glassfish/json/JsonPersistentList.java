@@ -0,0 +1,259 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import javax.json.JsonValue;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable list of array values that is updated with structural sharing.
+ * The values are kept in a balanced (AVL) tree, with the size of each
+ * subtree, so that {@link #with}, {@link #withAdded} and {@link #without}
+ * return a new list that copies only the nodes on the path of the index.
+ */
+final class JsonPersistentList extends AbstractList<JsonValue> {
+    private static final JsonPersistentList EMPTY = new JsonPersistentList(null);
+
+    private final Node root;
+
+    private JsonPersistentList(Node root) {
+        this.root = root;
+    }
+
+    static JsonPersistentList of(List<JsonValue> list) {
+        if (list instanceof JsonPersistentList) {
+            return (JsonPersistentList)list;
+        }
+        JsonValue[] values = list.toArray(new JsonValue[list.size()]);
+        return new JsonPersistentList(build(values, 0, values.length));
+    }
+
+    // Balanced tree of the values from begin to end
+    private static Node build(JsonValue[] values, int begin, int end) {
+        if (begin == end) {
+            return null;
+        }
+        int mid = (begin + end) >>> 1;
+        return new Node(values[mid], build(values, begin, mid), build(values, mid + 1, end));
+    }
+
+    /**
+     * Returns a list with the value at the index replaced.
+     */
+    JsonPersistentList with(int index, JsonValue value) {
+        checkIndex(index, size());
+        return new JsonPersistentList(set(root, index, value));
+    }
+
+    /**
+     * Returns a list with the value inserted at the index. The index could
+     * be the size of the list, to append the value.
+     */
+    JsonPersistentList withAdded(int index, JsonValue value) {
+        checkIndex(index, size() + 1);
+        return new JsonPersistentList(insert(root, index, value));
+    }
+
+    /**
+     * Returns a list without the value at the index.
+     */
+    JsonPersistentList without(int index) {
+        checkIndex(index, size());
+        Node node = delete(root, index);
+        return (node == null) ? EMPTY : new JsonPersistentList(node);
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static Node set(Node node, int index, JsonValue value) {
+        int left = size(node.left);
+        if (index < left) {
+            return new Node(node.value, set(node.left, index, value), node.right);
+        } else if (index > left) {
+            return new Node(node.value, node.left, set(node.right, index - left - 1, value));
+        }
+        return new Node(value, node.left, node.right);
+    }
+
+    private static Node insert(Node node, int index, JsonValue value) {
+        if (node == null) {
+            return new Node(value, null, null);
+        }
+        int left = size(node.left);
+        if (index <= left) {
+            return balance(node.value, insert(node.left, index, value), node.right);
+        }
+        return balance(node.value, node.left, insert(node.right, index - left - 1, value));
+    }
+
+    private static Node delete(Node node, int index) {
+        int left = size(node.left);
+        if (index < left) {
+            return balance(node.value, delete(node.left, index), node.right);
+        } else if (index > left) {
+            return balance(node.value, node.left, delete(node.right, index - left - 1));
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        }
+        // replaced by the first value of the right subtree
+        return balance(first(node.right), node.left, delete(node.right, 0));
+    }
+
+    private static JsonValue first(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.value;
+    }
+
+    // Node for subtrees whose heights differ at the most by two
+    private static Node balance(JsonValue value, Node left, Node right) {
+        int hl = height(left);
+        int hr = height(right);
+        if (hl > hr + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.value, left.left, new Node(value, left.right, right));
+            }
+            Node lr = left.right;
+            return new Node(lr.value, new Node(left.value, left.left, lr.left),
+                    new Node(value, lr.right, right));
+        } else if (hr > hl + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(right.value, new Node(value, left, right.left), right.right);
+            }
+            Node rl = right.left;
+            return new Node(rl.value, new Node(value, left, rl.left),
+                    new Node(right.value, rl.right, right.right));
+        }
+        return new Node(value, left, right);
+    }
+
+    private static int size(Node node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        checkIndex(index, size());
+        Node node = root;
+        for (;;) {
+            int left = size(node.left);
+            if (index < left) {
+                node = node.left;
+            } else if (index > left) {
+                index -= left + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<JsonValue> iterator() {
+        // in-order traversal, instead of a lookup for each index
+        return new Iterator<JsonValue>() {
+            private final Deque<Node> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node node) {
+                for (; node != null; node = node.left) {
+                    stack.push(node);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public JsonValue next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = stack.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    private static final class Node {
+        final JsonValue value;
+        final Node left;
+        final Node right;
+        final int size;
+        final int height;
+
+        Node(JsonValue value, Node left, Node right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+}
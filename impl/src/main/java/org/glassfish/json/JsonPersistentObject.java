@@ -0,0 +1,524 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import org.glassfish.json.api.BufferPool;
+
+import javax.json.*;
+import java.io.StringWriter;
+import java.lang.ref.SoftReference;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable object that is updated with structural sharing. The members
+ * are kept in a hash array mapped trie, so that {@link #with} and
+ * {@link #without} return a new object that copies only the trie nodes on
+ * the path of the name, instead of all the members.
+ *
+ * <p>
+ * Each member has a sequence number, assigned when its name is added and
+ * kept when its value is replaced. The members are iterated in that
+ * order, which is the insertion order as in the other objects. The order
+ * is computed on the first iteration, and cached. The members are placed
+ * by their sequence numbers, so this is a pass over all the members, as
+ * the iteration itself is; only when most of the sequence numbers are of
+ * removed members, the members are sorted instead. The same applies to
+ * {@link #hashCode}, {@link #equals} and {@link #toString}, so that the
+ * first of these on each new version costs O(n), while {@link #get} and
+ * the updates cost O(log n).
+ */
+final class JsonPersistentObject extends AbstractMap<String, JsonValue>
+        implements JsonObject, JsonSerializedText {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Nodes below this shift hold members with the same hash code
+    private static final int MAX_SHIFT = 30;
+    private static final Node EMPTY = new Node(0, new Object[0]);
+
+    private final Node root;
+    private final int size;
+    private final long nextSeq;
+    private final BufferPool bufferPool;
+    private Member[] members;       // in the insertion order, computed on demand
+    private int hash;               // cached hashCode(), 0 if not computed
+    private SoftReference<String> text;     // kept by a generator, may be cleared
+
+    private JsonPersistentObject(Node root, int size, long nextSeq, BufferPool bufferPool) {
+        this.root = root;
+        this.size = size;
+        this.nextSeq = nextSeq;
+        this.bufferPool = bufferPool;
+    }
+
+    static JsonPersistentObject of(JsonObject object, BufferPool bufferPool) {
+        if (object instanceof JsonPersistentObject) {
+            return (JsonPersistentObject)object;
+        }
+        JsonPersistentObject result = new JsonPersistentObject(EMPTY, 0, 0, bufferPool);
+        for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns an object with the name mapped to the value. A new name is
+     * added at the end, and an existing name keeps its position.
+     */
+    JsonPersistentObject with(String name, JsonValue value) {
+        int hash = hash(name);
+        Member existing = find(hash, name);
+        if (existing != null && existing.getValue() == value) {
+            return this;
+        }
+        long seq = (existing != null) ? existing.seq : nextSeq;
+        Node node = put(root, 0, new Member(name, value, hash, seq));
+        return (existing != null)
+                ? new JsonPersistentObject(node, size, nextSeq, bufferPool)
+                : new JsonPersistentObject(node, size + 1, nextSeq + 1, bufferPool);
+    }
+
+    /**
+     * Returns an object without the name.
+     */
+    JsonPersistentObject without(String name) {
+        int hash = hash(name);
+        if (find(hash, name) == null) {
+            return this;
+        }
+        Node node = remove(root, 0, hash, name);
+        return new JsonPersistentObject((node == null) ? EMPTY : node, size - 1, nextSeq, bufferPool);
+    }
+
+    private static int hash(Object name) {
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private Member find(int hash, Object name) {
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (shift > MAX_SHIFT) {
+                return node.findCollision(name);
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (slot instanceof Member) {
+                Member member = (Member)slot;
+                return (member.hash == hash && member.getKey().equals(name)) ? member : null;
+            }
+            node = (Node)slot;
+        }
+    }
+
+    private static Node put(Node node, int shift, Member member) {
+        if (shift > MAX_SHIFT) {
+            return node.putCollision(member);
+        }
+        int bit = 1 << ((member.hash >>> shift) & MASK);
+        int i = Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, i);
+            slots[i] = member;
+            System.arraycopy(node.slots, i, slots, i + 1, node.slots.length - i);
+            return new Node(node.bitmap | bit, slots);
+        }
+        Object slot = node.slots[i];
+        Object newSlot;
+        if (slot instanceof Node) {
+            newSlot = put((Node)slot, shift + BITS, member);
+        } else {
+            Member other = (Member)slot;
+            newSlot = other.getKey().equals(member.getKey())
+                    ? member
+                    : merge(other, member, shift + BITS);
+        }
+        Object[] slots = node.slots.clone();
+        slots[i] = newSlot;
+        return new Node(node.bitmap, slots);
+    }
+
+    // Node for two members whose hash codes are the same up to the shift
+    private static Node merge(Member m1, Member m2, int shift) {
+        if (shift > MAX_SHIFT) {
+            return new Node(0, new Object[] { m1, m2 });
+        }
+        int i1 = (m1.hash >>> shift) & MASK;
+        int i2 = (m2.hash >>> shift) & MASK;
+        if (i1 == i2) {
+            return new Node(1 << i1, new Object[] { merge(m1, m2, shift + BITS) });
+        }
+        return new Node((1 << i1) | (1 << i2),
+                (i1 < i2) ? new Object[] { m1, m2 } : new Object[] { m2, m1 });
+    }
+
+    // Returns null if the node becomes empty
+    private static Node remove(Node node, int shift, int hash, String name) {
+        if (shift > MAX_SHIFT) {
+            return node.removeCollision(name);
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int i = Integer.bitCount(node.bitmap & (bit - 1));
+        Object slot = node.slots[i];
+        if (slot instanceof Node) {
+            Node child = remove((Node)slot, shift + BITS, hash, name);
+            if (child != null) {
+                Object[] slots = node.slots.clone();
+                slots[i] = child;
+                return new Node(node.bitmap, slots);
+            }
+        }
+        if (node.slots.length == 1) {
+            return null;
+        }
+        Object[] slots = new Object[node.slots.length - 1];
+        System.arraycopy(node.slots, 0, slots, 0, i);
+        System.arraycopy(node.slots, i + 1, slots, i, slots.length - i);
+        return new Node(node.bitmap & ~bit, slots);
+    }
+
+    private Member[] members() {
+        // Computed from the immutable trie, at the most it is computed again
+        Member[] result = members;
+        if (result == null) {
+            result = new Member[size];
+            if (nextSeq <= 2L * size) {
+                // Place the members by their sequence numbers, and close
+                // the gaps of the removed members
+                Member[] bySeq = new Member[(int)nextSeq];
+                place(root, bySeq);
+                int i = 0;
+                for (Member member : bySeq) {
+                    if (member != null) {
+                        result[i++] = member;
+                    }
+                }
+            } else {
+                collect(root, result, 0);
+                Arrays.sort(result, (m1, m2) -> Long.compare(m1.seq, m2.seq));
+            }
+            members = result;
+        }
+        return result;
+    }
+
+    private static void place(Node node, Member[] bySeq) {
+        for (Object slot : node.slots) {
+            if (slot instanceof Member) {
+                bySeq[(int)((Member)slot).seq] = (Member)slot;
+            } else {
+                place((Node)slot, bySeq);
+            }
+        }
+    }
+
+    private static int collect(Node node, Member[] result, int i) {
+        for (Object slot : node.slots) {
+            if (slot instanceof Member) {
+                result[i++] = (Member)slot;
+            } else {
+                i = collect((Node)slot, result, i);
+            }
+        }
+        return i;
+    }
+
+    @Override
+    public JsonValue get(Object name) {
+        if (name == null) {
+            return null;
+        }
+        Member member = find(hash(name), name);
+        return (member != null) ? member.getValue() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return name != null && find(hash(name), name) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super JsonValue> action) {
+        for (Member member : members()) {
+            action.accept(member.getKey(), member.getValue());
+        }
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        return new AbstractSet<Entry<String, JsonValue>>() {
+            @Override
+            public Iterator<Entry<String, JsonValue>> iterator() {
+                return Collections.<Entry<String, JsonValue>>unmodifiableList(
+                        Arrays.asList(members())).iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public JsonArray getJsonArray(String name) {
+        return (JsonArray)get(name);
+    }
+
+    @Override
+    public JsonObject getJsonObject(String name) {
+        return (JsonObject)get(name);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(String name) {
+        return (JsonNumber)get(name);
+    }
+
+    @Override
+    public JsonString getJsonString(String name) {
+        return (JsonString)get(name);
+    }
+
+    @Override
+    public String getString(String name) {
+        return getJsonString(name).getString();
+    }
+
+    @Override
+    public String getString(String name, String defaultValue) {
+        try {
+            return getString(name);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public int getInt(String name) {
+        return getJsonNumber(name).intValue();
+    }
+
+    @Override
+    public int getInt(String name, int defaultValue) {
+        try {
+            return getInt(name);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        JsonValue value = get(name);
+        if (value == null) {
+            throw new NullPointerException();
+        } else if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        } else {
+            throw new ClassCastException();
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String name, boolean defaultValue) {
+        try {
+            return getBoolean(name);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        return get(name).equals(JsonValue.NULL);
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    @Override
+    public int hashCode() {
+        // the object is immutable, at the most it is computed again
+        int h = hash;
+        if (h == 0) {
+            for (Member member : members()) {
+                h += member.getKey().hashCode() ^ member.getValue().hashCode();
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof JsonPersistentObject || obj instanceof JsonObjectBuilderImpl.JsonObjectImpl) {
+            // the hash codes are cached, and differ for most unequal objects
+            Map<?, ?> other = (Map<?, ?>)obj;
+            if (other.size() != size || other.hashCode() != hashCode()) {
+                return false;
+            }
+            for (Member member : members()) {
+                if (!member.getValue().equals(other.get(member.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return super.equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        String str = getSerializedText();
+        if (str == null) {
+            StringWriter sw = new StringWriter();
+            try (JsonWriter jw = new JsonWriterImpl(sw, bufferPool)) {
+                jw.write(this);
+            }
+            str = sw.toString();
+        }
+        return str;
+    }
+
+    @Override
+    public String getSerializedText() {
+        SoftReference<String> ref = text;
+        return ref == null ? null : ref.get();
+    }
+
+    @Override
+    public void setSerializedText(String str) {
+        text = new SoftReference<>(str);
+    }
+
+    @Override
+    public JsonObject asJsonObject() {
+        return this;
+    }
+
+    private static final class Member extends SimpleImmutableEntry<String, JsonValue> {
+        private static final long serialVersionUID = 1L;
+
+        private final int hash;
+        private final long seq;
+
+        Member(String name, JsonValue value, int hash, long seq) {
+            super(name, value);
+            this.hash = hash;
+            this.seq = seq;
+        }
+    }
+
+    /*
+     * Trie node. The slots are members or child nodes, one for each set bit
+     * of the bitmap. Below MAX_SHIFT, there is no bitmap and the slots are
+     * the members with the same hash code.
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        Member findCollision(Object name) {
+            for (Object slot : slots) {
+                if (((Member)slot).getKey().equals(name)) {
+                    return (Member)slot;
+                }
+            }
+            return null;
+        }
+
+        Node putCollision(Member member) {
+            for (int i = 0; i < slots.length; i++) {
+                if (((Member)slots[i]).getKey().equals(member.getKey())) {
+                    Object[] copy = slots.clone();
+                    copy[i] = member;
+                    return new Node(0, copy);
+                }
+            }
+            Object[] copy = Arrays.copyOf(slots, slots.length + 1);
+            copy[slots.length] = member;
+            return new Node(0, copy);
+        }
+
+        Node removeCollision(String name) {
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[slots.length - 1];
+            int j = 0;
+            for (Object slot : slots) {
+                if (!((Member)slot).getKey().equals(name)) {
+                    copy[j++] = slot;
+                }
+            }
+            return new Node(0, copy);
+        }
+    }
+
+}
@@ -42,6 +42,7 @@ package org.glassfish.json;
 
 import org.glassfish.json.api.BufferPool;
 
+import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 import java.io.OutputStream;
 import java.io.Writer;
@@ -58,6 +59,10 @@ public class JsonPrettyGeneratorImpl extends JsonGeneratorImpl {
         super(writer, bufferPool);
     }
 
+    public JsonPrettyGeneratorImpl(Writer writer, boolean multipleDocuments, BufferPool bufferPool) {
+        super(writer, multipleDocuments, bufferPool);
+    }
+
     public JsonPrettyGeneratorImpl(OutputStream out, BufferPool bufferPool) {
         super(out, bufferPool);
     }
@@ -66,32 +71,21 @@ public class JsonPrettyGeneratorImpl extends JsonGeneratorImpl {
         super(out, encoding, bufferPool);
     }
 
-    @Override
-    public JsonGenerator writeStartObject() {
-        super.writeStartObject();
-        indentLevel++;
-        return this;
+    public JsonPrettyGeneratorImpl(OutputStream out, Charset encoding, boolean multipleDocuments,
+            BufferPool bufferPool) {
+        super(out, encoding, multipleDocuments, bufferPool);
     }
 
+    // The kept text is compact, so the values are always generated
     @Override
-    public JsonGenerator writeStartObject(String name) {
-        super.writeStartObject(name);
-        indentLevel++;
-        return this;
+    String serializedText(JsonValue value) {
+        return null;
     }
 
     @Override
-    public JsonGenerator writeStartArray() {
-        super.writeStartArray();
+    void writeStart(char c) {
+        super.writeStart(c);
         indentLevel++;
-        return this;
-    }
-
-    @Override
-    public JsonGenerator writeStartArray(String name) {
-        super.writeStartArray(name);
-        indentLevel++;
-        return this;
     }
 
     @Override
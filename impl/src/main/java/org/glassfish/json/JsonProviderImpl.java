@@ -41,6 +41,11 @@
 package org.glassfish.json;
 
 import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonArraySpliterator;
+import org.glassfish.json.api.JsonConfig;
+import org.glassfish.json.api.JsonFeedParser;
+import org.glassfish.json.api.JsonPreparedGenerator;
+import org.glassfish.json.api.JsonPreparedName;
 
 import javax.json.*;
 import javax.json.stream.JsonGenerator;
@@ -52,6 +57,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -92,23 +98,105 @@ public class JsonProviderImpl extends JsonProvider {
         if (pool == null) {
             pool = bufferPool;
         }
-        return new JsonParserFactoryImpl(pool);
+        Map<String, Object> providerConfig = Collections.emptyMap();
+        boolean multipleDocuments = false;
+        JsonKeyTable keyTable = null;
+        if (config != null) {
+            providerConfig = new HashMap<>();
+            if (multipleDocuments=isMultipleDocumentsEnabled(config)) {
+                providerConfig.put(JsonConfig.MULTIPLE_DOCUMENTS, true);
+            }
+            if (isKeyNameTableEnabled(config)) {
+                keyTable = new JsonKeyTable();
+                providerConfig.put(JsonConfig.KEY_NAME_TABLE, true);
+            }
+            providerConfig = Collections.unmodifiableMap(providerConfig);
+        }
+        return new JsonParserFactoryImpl(providerConfig, multipleDocuments, keyTable, pool);
+    }
+
+    /**
+     * Creates a non-blocking parser to which the input is fed as chunks of
+     * UTF-8 encoded bytes. The parser is configured the same way as the
+     * parsers of {@link #createParserFactory(Map)}.
+     *
+     * @param config a map of provider specific properties to configure the
+     *               parser. The map may be empty or null
+     * @return a feed parser
+     */
+    public JsonFeedParser createFeedParser(Map<String, ?> config) {
+        BufferPool pool = null;
+        if (config != null && config.containsKey(BufferPool.class.getName())) {
+            pool = (BufferPool)config.get(BufferPool.class.getName());
+        }
+        if (pool == null) {
+            pool = bufferPool;
+        }
+        boolean multipleDocuments = config != null && isMultipleDocumentsEnabled(config);
+        JsonKeyTable keyTable = (config != null && isKeyNameTableEnabled(config))
+                ? new JsonKeyTable() : null;
+        return new JsonFeedParserImpl(multipleDocuments, keyTable, pool);
+    }
+
+    /**
+     * Creates a spliterator over the elements of the JSON array in the given
+     * buffer. The buffer's content between its position and limit must be
+     * a UTF-8 encoded JSON array. The buffer is not modified.
+     *
+     * @param buffer UTF-8 encoded JSON array
+     * @param config a map of provider specific properties to configure the
+     *               spliterator. The map may be empty or null
+     * @return an array spliterator
+     * @throws JsonException if the content is not a JSON array
+     */
+    public JsonArraySpliterator createArraySpliterator(ByteBuffer buffer, Map<String, ?> config) {
+        BufferPool pool = null;
+        if (config != null && config.containsKey(BufferPool.class.getName())) {
+            pool = (BufferPool)config.get(BufferPool.class.getName());
+        }
+        if (pool == null) {
+            pool = bufferPool;
+        }
+        return new JsonArraySpliteratorImpl(buffer, pool);
+    }
+
+    /**
+     * Creates a name of object members that is escaped and encoded once,
+     * to be written by any {@link JsonPreparedGenerator} of this
+     * implementation.
+     *
+     * @param name a name of object members
+     * @return a prepared name
+     * @throws NullPointerException if the name is null
+     */
+    public JsonPreparedName createPreparedName(String name) {
+        return new JsonPreparedNameImpl(name);
     }
 
     @Override
     public JsonGeneratorFactory createGeneratorFactory(Map<String, ?> config) {
         Map<String, Object> providerConfig;
         boolean prettyPrinting;
+        boolean multipleDocuments;
+        boolean cacheText;
         BufferPool pool;
         if (config == null) {
             providerConfig = Collections.emptyMap();
             prettyPrinting = false;
+            multipleDocuments = false;
+            cacheText = false;
             pool = bufferPool;
         } else {
             providerConfig = new HashMap<>();
             if (prettyPrinting=JsonProviderImpl.isPrettyPrintingEnabled(config)) {
                 providerConfig.put(JsonGenerator.PRETTY_PRINTING, true);
             }
+            if (multipleDocuments=isMultipleDocumentsEnabled(config)) {
+                providerConfig.put(JsonConfig.MULTIPLE_DOCUMENTS, true);
+            }
+            if (cacheText=isSerializedTextCacheEnabled(config)) {
+                providerConfig.put(JsonConfig.SERIALIZED_TEXT_CACHE, true);
+            }
             pool = (BufferPool)config.get(BufferPool.class.getName());
             if (pool != null) {
                 providerConfig.put(BufferPool.class.getName(), pool);
@@ -118,7 +206,8 @@ public class JsonProviderImpl extends JsonProvider {
             providerConfig = Collections.unmodifiableMap(providerConfig);
         }
 
-        return new JsonGeneratorFactoryImpl(providerConfig, prettyPrinting, pool);
+        return new JsonGeneratorFactoryImpl(providerConfig, prettyPrinting,
+                multipleDocuments, cacheText, pool);
     }
 
     @Override
@@ -145,16 +234,26 @@ public class JsonProviderImpl extends JsonProvider {
     public JsonWriterFactory createWriterFactory(Map<String, ?> config) {
         Map<String, Object> providerConfig;
         boolean prettyPrinting;
+        boolean multipleDocuments;
+        boolean cacheText;
         BufferPool pool;
         if (config == null) {
             providerConfig = Collections.emptyMap();
             prettyPrinting = false;
+            multipleDocuments = false;
+            cacheText = false;
             pool = bufferPool;
         } else {
             providerConfig = new HashMap<>();
             if (prettyPrinting=JsonProviderImpl.isPrettyPrintingEnabled(config)) {
                 providerConfig.put(JsonGenerator.PRETTY_PRINTING, true);
             }
+            if (multipleDocuments=isMultipleDocumentsEnabled(config)) {
+                providerConfig.put(JsonConfig.MULTIPLE_DOCUMENTS, true);
+            }
+            if (cacheText=isSerializedTextCacheEnabled(config)) {
+                providerConfig.put(JsonConfig.SERIALIZED_TEXT_CACHE, true);
+            }
             pool = (BufferPool)config.get(BufferPool.class.getName());
             if (pool != null) {
                 providerConfig.put(BufferPool.class.getName(), pool);
@@ -163,7 +262,8 @@ public class JsonProviderImpl extends JsonProvider {
             }
             providerConfig = Collections.unmodifiableMap(providerConfig);
         }
-        return new JsonWriterFactoryImpl(providerConfig, prettyPrinting, pool);
+        return new JsonWriterFactoryImpl(providerConfig, prettyPrinting,
+                multipleDocuments, cacheText, pool);
     }
 
     @Override
@@ -175,7 +275,27 @@ public class JsonProviderImpl extends JsonProvider {
         if (pool == null) {
             pool = bufferPool;
         }
-        return new JsonReaderFactoryImpl(pool);
+        Map<String, Object> providerConfig = Collections.emptyMap();
+        boolean multipleDocuments = false;
+        JsonKeyTable keyTable = null;
+        boolean lazyReading = false;
+        if (config != null) {
+            providerConfig = new HashMap<>();
+            if (multipleDocuments=isMultipleDocumentsEnabled(config)) {
+                providerConfig.put(JsonConfig.MULTIPLE_DOCUMENTS, true);
+            }
+            if (isKeyNameTableEnabled(config)) {
+                keyTable = new JsonKeyTable();
+                providerConfig.put(JsonConfig.KEY_NAME_TABLE, true);
+            }
+            if (isLazyReadingEnabled(config)) {
+                lazyReading = true;
+                providerConfig.put(JsonConfig.LAZY_READING, true);
+            }
+            providerConfig = Collections.unmodifiableMap(providerConfig);
+        }
+        return new JsonReaderFactoryImpl(providerConfig, multipleDocuments, keyTable,
+                lazyReading, pool);
     }
 
     @Override
@@ -213,4 +333,20 @@ public class JsonProviderImpl extends JsonProvider {
     static boolean isPrettyPrintingEnabled(Map<String, ?> config) {
         return config.containsKey(JsonGenerator.PRETTY_PRINTING);
     }
+
+    static boolean isMultipleDocumentsEnabled(Map<String, ?> config) {
+        return config.containsKey(JsonConfig.MULTIPLE_DOCUMENTS);
+    }
+
+    static boolean isKeyNameTableEnabled(Map<String, ?> config) {
+        return config.containsKey(JsonConfig.KEY_NAME_TABLE);
+    }
+
+    static boolean isLazyReadingEnabled(Map<String, ?> config) {
+        return config.containsKey(JsonConfig.LAZY_READING);
+    }
+
+    static boolean isSerializedTextCacheEnabled(Map<String, ?> config) {
+        return config.containsKey(JsonConfig.SERIALIZED_TEXT_CACHE);
+    }
 }
@@ -54,26 +54,47 @@ import java.util.Map;
  * @author Jitendra Kotamraju
  */
 class JsonReaderFactoryImpl implements JsonReaderFactory {
-    private final Map<String, ?> config = Collections.emptyMap();
+    private final Map<String, ?> config;    // unmodifiable map
+    private final boolean multipleDocuments;
+    private final JsonKeyTable keyTable;    // null when key names are not shared
+    private final boolean lazyReading;
     private final BufferPool bufferPool;
 
     JsonReaderFactoryImpl(BufferPool bufferPool) {
+        this(Collections.<String, Object>emptyMap(), false, null, false, bufferPool);
+    }
+
+    JsonReaderFactoryImpl(Map<String, ?> config, boolean multipleDocuments,
+            JsonKeyTable keyTable, boolean lazyReading, BufferPool bufferPool) {
+        this.config = config;
+        this.multipleDocuments = multipleDocuments;
+        this.keyTable = keyTable;
+        this.lazyReading = lazyReading;
         this.bufferPool = bufferPool;
     }
 
     @Override
     public JsonReader createReader(Reader reader) {
-        return new JsonReaderImpl(reader, bufferPool);
+        if (lazyReading) {
+            return new JsonLazyReaderImpl(reader, multipleDocuments, keyTable, bufferPool);
+        }
+        return new JsonReaderImpl(reader, multipleDocuments, keyTable, bufferPool);
     }
 
     @Override
     public JsonReader createReader(InputStream in) {
-        return new JsonReaderImpl(in, bufferPool);
+        if (lazyReading) {
+            return new JsonLazyReaderImpl(in, multipleDocuments, keyTable, bufferPool);
+        }
+        return new JsonReaderImpl(in, multipleDocuments, keyTable, bufferPool);
     }
 
     @Override
     public JsonReader createReader(InputStream in, Charset charset) {
-        return new JsonReaderImpl(in, charset, bufferPool);
+        if (lazyReading) {
+            return new JsonLazyReaderImpl(in, charset, multipleDocuments, keyTable, bufferPool);
+        }
+        return new JsonReaderImpl(in, charset, multipleDocuments, keyTable, bufferPool);
     }
 
     @Override
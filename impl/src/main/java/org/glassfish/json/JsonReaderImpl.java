@@ -56,21 +56,37 @@ import java.nio.charset.Charset;
 class JsonReaderImpl implements JsonReader {
     private final JsonParserImpl parser;
     private boolean readDone;
-    private final BufferPool bufferPool;
+    // Whether a sequence of JSON texts is read, one per read call
+    private final boolean multipleDocuments;
 
     JsonReaderImpl(Reader reader, BufferPool bufferPool) {
-        parser = new JsonParserImpl(reader, bufferPool);
-        this.bufferPool = bufferPool;
+        this(reader, false, null, bufferPool);
+    }
+
+    JsonReaderImpl(Reader reader, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        parser = new JsonParserImpl(reader, multipleDocuments, keyTable, bufferPool);
+        this.multipleDocuments = multipleDocuments;
     }
 
     JsonReaderImpl(InputStream in, BufferPool bufferPool) {
-        parser = new JsonParserImpl(in, bufferPool);
-        this.bufferPool = bufferPool;
+        this(in, false, null, bufferPool);
+    }
+
+    JsonReaderImpl(InputStream in, boolean multipleDocuments, JsonKeyTable keyTable,
+            BufferPool bufferPool) {
+        parser = new JsonParserImpl(in, multipleDocuments, keyTable, bufferPool);
+        this.multipleDocuments = multipleDocuments;
     }
 
     JsonReaderImpl(InputStream in, Charset charset, BufferPool bufferPool) {
-        parser = new JsonParserImpl(in, charset, bufferPool);
-        this.bufferPool = bufferPool;
+        this(in, charset, false, null, bufferPool);
+    }
+
+    JsonReaderImpl(InputStream in, Charset charset, boolean multipleDocuments,
+            JsonKeyTable keyTable, BufferPool bufferPool) {
+        parser = new JsonParserImpl(in, charset, multipleDocuments, keyTable, bufferPool);
+        this.multipleDocuments = multipleDocuments;
     }
 
     @Override
@@ -78,14 +94,16 @@ class JsonReaderImpl implements JsonReader {
         if (readDone) {
             throw new IllegalStateException(JsonMessages.READER_READ_ALREADY_CALLED());
         }
-        readDone = true;
+        readDone = !multipleDocuments;
         if (parser.hasNext()) {
             JsonParser.Event e = parser.next();
             if (e == JsonParser.Event.START_ARRAY) {
-                return readArray(new JsonArrayBuilderImpl(bufferPool));
+                return parser.getArray();
             } else if (e == JsonParser.Event.START_OBJECT) {
-                return readObject(new JsonObjectBuilderImpl(bufferPool));
+                return parser.getObject();
             }
+        } else if (multipleDocuments) {
+            return null;            // end of the input
         }
         throw new JsonException("Internal Error");
     }
@@ -95,14 +113,16 @@ class JsonReaderImpl implements JsonReader {
         if (readDone) {
             throw new IllegalStateException(JsonMessages.READER_READ_ALREADY_CALLED());
         }
-        readDone = true;
+        readDone = !multipleDocuments;
         if (parser.hasNext()) {
             JsonParser.Event e = parser.next();
             if (e == JsonParser.Event.START_OBJECT) {
-                return readObject(new JsonObjectBuilderImpl(bufferPool));
+                return parser.getObject();
             } else if (e == JsonParser.Event.START_ARRAY) {
                 throw new JsonException(JsonMessages.READER_EXPECTED_OBJECT_GOT_ARRAY());
             }
+        } else if (multipleDocuments) {
+            return null;            // end of the input
         }
         throw new JsonException("Internal Error");
     }
@@ -112,14 +132,16 @@ class JsonReaderImpl implements JsonReader {
         if (readDone) {
             throw new IllegalStateException(JsonMessages.READER_READ_ALREADY_CALLED());
         }
-        readDone = true;
+        readDone = !multipleDocuments;
         if (parser.hasNext()) {
             JsonParser.Event e = parser.next();
             if (e == JsonParser.Event.START_ARRAY) {
-                return readArray(new JsonArrayBuilderImpl(bufferPool));
+                return parser.getArray();
             } else if (e == JsonParser.Event.START_OBJECT) {
                 throw new JsonException(JsonMessages.READER_EXPECTED_ARRAY_GOT_OBJECT());
             }
+        } else if (multipleDocuments) {
+            return null;            // end of the input
         }
         throw new JsonException("Internal Error");
     }
@@ -130,88 +152,4 @@ class JsonReaderImpl implements JsonReader {
         parser.close();
     }
 
-    private JsonArray readArray(JsonArrayBuilder builder) {
-        while(parser.hasNext()) {
-            JsonParser.Event e = parser.next();
-            switch (e) {
-                case START_ARRAY:
-                    JsonArray array = readArray(new JsonArrayBuilderImpl(bufferPool));
-                    builder.add(array);
-                    break;
-                case START_OBJECT:
-                    JsonObject object = readObject(new JsonObjectBuilderImpl(bufferPool));
-                    builder.add(object);
-                    break;
-                case VALUE_STRING:
-                    builder.add(parser.getString());
-                    break;
-                case VALUE_NUMBER:
-                    if (parser.isDefinitelyInt()) {
-                        builder.add(parser.getInt());
-                    } else {
-                        builder.add(parser.getBigDecimal());
-                    }
-                    break;
-                case VALUE_TRUE:
-                    builder.add(JsonValue.TRUE);
-                    break;
-                case VALUE_FALSE:
-                    builder.add(JsonValue.FALSE);
-                    break;
-                case VALUE_NULL:
-                    builder.addNull();
-                    break;
-                case END_ARRAY:
-                    return builder.build();
-                default:
-                    throw new JsonException("Internal Error");
-            }
-        }
-        throw new JsonException("Internal Error");
-    }
-
-    private JsonObject readObject(JsonObjectBuilder builder) {
-        String key = null;
-        while(parser.hasNext()) {
-            JsonParser.Event e = parser .next();
-            switch (e) {
-                case START_ARRAY:
-                    JsonArray array = readArray(new JsonArrayBuilderImpl(bufferPool));
-                    builder.add(key, array);
-                    break;
-                case START_OBJECT:
-                    JsonObject object = readObject(new JsonObjectBuilderImpl(bufferPool));
-                    builder.add(key, object);
-                    break;
-                case KEY_NAME:
-                    key = parser.getString();
-                    break;
-                case VALUE_STRING:
-                    builder.add(key, parser.getString());
-                    break;
-                case VALUE_NUMBER:
-                    if (parser.isDefinitelyInt()) {
-                        builder.add(key, parser.getInt());
-                    } else {
-                        builder.add(key, parser.getBigDecimal());
-                    }
-                    break;
-                case VALUE_TRUE:
-                    builder.add(key, JsonValue.TRUE);
-                    break;
-                case VALUE_FALSE:
-                    builder.add(key, JsonValue.FALSE);
-                    break;
-                case VALUE_NULL:
-                    builder.addNull(key);
-                    break;
-                case END_OBJECT:
-                    return builder.build();
-                default:
-                    throw new JsonException("Internal Error");
-            }
-        }
-        throw new JsonException("Internal Error");
-    }
-
 }
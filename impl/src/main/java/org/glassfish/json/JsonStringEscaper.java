@@ -0,0 +1,123 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+/**
+ * Escaping of the chars of JSON strings, shared by the generator and
+ * {@code JsonString.toString()}. Only some ASCII chars are escaped: the
+ * quotation mark, the reverse solidus and the control characters.
+ */
+final class JsonStringEscaper {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Escape sequence of the ASCII chars, null if a char is not escaped
+    private static final char[][] ESCAPES = new char[0x80][];
+
+    static {
+        // unescaped = %x20-21 | %x23-5B | %x5D-10FFFF
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = new char[] {'\\', 'u', '0', '0', HEX_DIGITS[c >> 4], HEX_DIGITS[c & 0xf]};
+        }
+        ESCAPES['"'] = new char[] {'\\', '"'};
+        ESCAPES['\\'] = new char[] {'\\', '\\'};
+        ESCAPES['\b'] = new char[] {'\\', 'b'};
+        ESCAPES['\f'] = new char[] {'\\', 'f'};
+        ESCAPES['\n'] = new char[] {'\\', 'n'};
+        ESCAPES['\r'] = new char[] {'\\', 'r'};
+        ESCAPES['\t'] = new char[] {'\\', 't'};
+    }
+
+    private JsonStringEscaper() {
+    }
+
+    /**
+     * Returns the escape sequence of a char. The returned array must not
+     * be modified.
+     *
+     * @return the chars of the escape sequence, or null if the char is
+     * written as is
+     */
+    static char[] escape(char c) {
+        return c < 0x80 ? ESCAPES[c] : null;
+    }
+
+    /**
+     * Returns the index of the first char that needs to be escaped in the
+     * given range.
+     *
+     * @return the index of the char, or end if there is none
+     */
+    static int indexOfEscape(String str, int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80 && ESCAPES[c] != null) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns the JSON text of a string, with the quotation marks.
+     */
+    static String quote(String str) {
+        int len = str.length();
+        int i = indexOfEscape(str, 0, len);
+        if (i == len) {
+            // Most strings have no characters to escape, and are copied as is
+            return '"' + str + '"';
+        }
+        StringBuilder sb = new StringBuilder(len + 8);
+        sb.append('"');
+        int begin = 0;
+        do {
+            sb.append(str, begin, i);
+            sb.append(ESCAPES[str.charAt(i)]);
+            begin = i + 1;
+            i = indexOfEscape(str, begin, len);
+        } while (i < len);
+        sb.append(str, begin, len);
+        sb.append('"');
+        return sb.toString();
+    }
+
+}
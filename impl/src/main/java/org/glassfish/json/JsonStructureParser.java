@@ -45,6 +45,9 @@ import javax.json.stream.JsonLocation;
 import javax.json.stream.JsonParser;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * {@link JsonParser} implementation on top of JsonArray/JsonObject
@@ -107,6 +110,135 @@ class JsonStructureParser implements JsonParser {
         throw new IllegalStateException(JsonMessages.PARSER_GETBIGDECIMAL_ERR(state));
     }
 
+    @Override
+    public JsonObject getObject() {
+        if (state != Event.START_OBJECT) {
+            throw new IllegalStateException(JsonMessages.PARSER_GETOBJECT_ERR(state));
+        }
+        // Skip to END_OBJECT, that pops the scope on the next transition
+        state = Event.END_OBJECT;
+        return ((ObjectScope)current).object;
+    }
+
+    @Override
+    public JsonArray getArray() {
+        if (state != Event.START_ARRAY) {
+            throw new IllegalStateException(JsonMessages.PARSER_GETARRAY_ERR(state));
+        }
+        // Skip to END_ARRAY, that pops the scope on the next transition
+        state = Event.END_ARRAY;
+        return ((ArrayScope)current).array;
+    }
+
+    @Override
+    public JsonValue getValue() {
+        if (state == null) {
+            throw new IllegalStateException(JsonMessages.PARSER_GETVALUE_ERR(state));
+        }
+        switch (state) {
+            case START_OBJECT:
+                return getObject();
+            case START_ARRAY:
+                return getArray();
+            case KEY_NAME:
+                return new JsonStringImpl(((ObjectScope)current).key);
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                return current.getJsonValue();
+            default:
+                throw new IllegalStateException(JsonMessages.PARSER_GETVALUE_ERR(state));
+        }
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        if (state != Event.START_ARRAY) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETARRAYSTREAM_ERR(state));
+        }
+        Spliterator<JsonValue> spliterator =
+                new Spliterators.AbstractSpliterator<JsonValue>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super JsonValue> action) {
+                if (action == null) {
+                    throw new NullPointerException();
+                }
+                if (done || next() == Event.END_ARRAY) {
+                    done = true;
+                    return false;
+                }
+                action.accept(getValue());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonValue>> getObjectStream() {
+        if (state != Event.START_OBJECT) {
+            throw new IllegalStateException(
+                    JsonMessages.PARSER_GETOBJECTSTREAM_ERR(state));
+        }
+        Spliterator<Map.Entry<String, JsonValue>> spliterator =
+                new Spliterators.AbstractSpliterator<Map.Entry<String, JsonValue>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Map.Entry<String, JsonValue>> action) {
+                if (action == null) {
+                    throw new NullPointerException();
+                }
+                if (done || next() == Event.END_OBJECT) {
+                    done = true;
+                    return false;
+                }
+                String key = getString();
+                next();
+                action.accept(new AbstractMap.SimpleImmutableEntry<>(key, getValue()));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public void skipArray() {
+        skip(Event.END_ARRAY);
+    }
+
+    @Override
+    public void skipObject() {
+        skip(Event.END_OBJECT);
+    }
+
+    private void skip(Event end) {
+        if (state == null) {
+            return;
+        }
+        boolean done = state == Event.END_OBJECT || state == Event.END_ARRAY;
+        Scope scope = current;
+        if (done) {
+            // current scope is already done, skip in the enclosing one
+            if (scopeStack.isEmpty()) {
+                return;
+            }
+            scope = scopeStack.peek();
+        }
+        if ((scope instanceof ArrayScope) == (end == Event.END_ARRAY)) {
+            if (done) {
+                current = scopeStack.pop();
+            }
+            // END_XXX pops the scope on the next transition
+            state = end;
+        }
+    }
+
     @Override
     public JsonLocation getLocation() {
         return JsonLocationImpl.UNKNOWN;
@@ -204,10 +336,12 @@ class JsonStructureParser implements JsonParser {
     }
 
     private static class ArrayScope extends Scope {
+        private final JsonArray array;
         private final Iterator<JsonValue> it;
         private JsonValue value;
 
         ArrayScope(JsonArray array) {
+            this.array = array;
             this.it = array.iterator();
         }
 
@@ -235,11 +369,13 @@ class JsonStructureParser implements JsonParser {
     }
 
     private static class ObjectScope extends Scope {
+        private final JsonObject object;
         private final Iterator<Map.Entry<String, JsonValue>> it;
         private JsonValue value;
         private String key;
 
         ObjectScope(JsonObject object) {
+            this.object = object;
             this.it = object.entrySet().iterator();
         }
 
@@ -42,7 +42,6 @@ package org.glassfish.json;
 
 import org.glassfish.json.api.BufferPool;
 
-import javax.json.JsonException;
 import javax.json.stream.JsonLocation;
 import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParsingException;
@@ -53,13 +52,18 @@ import java.util.Arrays;
 import javax.json.stream.JsonParser.Event;
 
 /**
- * JSON Tokenizer
+ * JSON Tokenizer. Subclasses scan a particular kind of input source, and
+ * leave the current string and number token value in {@code buf} between
+ * {@code storeBegin} and {@code storeEnd}, so that the value accessors
+ * are common to all of them.
  *
  * @author Jitendra Kotamraju
+ * @see JsonCharTokenizer
+ * @see JsonUtf8Tokenizer
  */
-final class JsonTokenizer implements Closeable {
+abstract class JsonTokenizer implements Closeable {
     // Table to look up hex ch -> value (for e.g HEX['F'] = 15, HEX['5'] = 5)
-    private final static int[] HEX = new int[128];
+    final static int[] HEX = new int[128];
     static {
         Arrays.fill(HEX, -1);
         for (int i='0'; i <= '9'; i++) {
@@ -72,29 +76,25 @@ final class JsonTokenizer implements Closeable {
             HEX[i] = 10+i-'a';
         }
     }
-    private final static int HEX_LENGTH = HEX.length;
+    final static int HEX_LENGTH = HEX.length;
+    // Largest mantissa that is exactly representable as double
+    private final static long MAX_EXACT_MANTISSA = 1L << 53;
 
-    private final BufferPool bufferPool;
+    final BufferPool bufferPool;
 
-    private final Reader reader;
+    // Buffer that holds the current string and number value token
+    // (between storeBegin and storeEnd). Subclasses may also use it
+    // as the read buffer.
+    char[] buf;
 
-    // Internal buffer that is used for parsing. It is also used
-    // for storing current string and number value token
-    private char[] buf;
-
-    // Indexes in buffer
-    //
-    // XXXssssssssssssXXXXXXXXXXXXXXXXXXXXXXrrrrrrrrrrrrrrXXXXXX
-    //    ^           ^                     ^             ^
-    //    |           |                     |             |
-    //   storeBegin  storeEnd            readBegin      readEnd
-    private int readBegin;
-    private int readEnd;
-    private int storeBegin;
-    private int storeEnd;
+    // Indexes in the read buffer, and in buf for the stored token
+    int readBegin;
+    int readEnd;
+    int storeBegin;
+    int storeEnd;
 
     // line number of the current pointer of parsing char
-    private long lineNo = 1;
+    long lineNo = 1;
 
     // XXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX
     // ^
@@ -103,15 +103,19 @@ final class JsonTokenizer implements Closeable {
     //
     // offset of the last \r\n or \n. will be used to calculate column number
     // of a token or an error. This may be outside of the buffer.
-    private long lastLineOffset = 0;
+    long lastLineOffset = 0;
     // offset in the stream for the start of the buffer, will be used in
     // calculating JsonLocation's stream offset, column no.
-    private long bufferOffset = 0;
+    long bufferOffset = 0;
 
-    private boolean minus;
-    private boolean fracOrExp;
+    boolean minus;
+    boolean fracOrExp;
     private BigDecimal bd;
 
+    // Types of the open brackets while skipping, a bit per depth that is
+    // set for '['. Allocated on the first skip.
+    private long[] brackets;
+
     enum JsonToken {
         CURLYOPEN(Event.START_OBJECT, false),
         SQUAREOPEN(Event.START_ARRAY, false),
@@ -143,277 +147,38 @@ final class JsonTokenizer implements Closeable {
         }
     }
 
-    JsonTokenizer(Reader reader, BufferPool bufferPool) {
-        this.reader = reader;
+    JsonTokenizer(BufferPool bufferPool) {
         this.bufferPool = bufferPool;
         buf = bufferPool.take();
     }
 
-    private void readString() {
-        // when inPlace is true, no need to copy chars
-        boolean inPlace = true;
-        storeBegin = storeEnd = readBegin;
-
-        do {
-            // Write unescaped char block within the current buffer
-            if (inPlace) {
-                int ch;
-                while(readBegin < readEnd && ((ch=buf[readBegin]) >= 0x20) && ch != '\\') {
-                    if (ch == '"') {
-                        storeEnd = readBegin++; // ++ to consume quote char
-                        return;                 // Got the entire string
-                    }
-                    readBegin++;                // consume unescaped char
-                }
-                storeEnd = readBegin;
-            }
-
-            // string may be crossing buffer boundaries and may contain
-            // escaped characters.
-            int ch = read();
-            if (ch >= 0x20 && ch != 0x22 && ch != 0x5c) {
-                if (!inPlace) {
-                    buf[storeEnd] = (char)ch;
-                }
-                storeEnd++;
-                continue;
-            }
-            switch (ch) {
-                case '\\':
-                    inPlace = false;        // Now onwards need to copy chars
-                    unescape();
-                    break;
-                case '"':
-                    return;
-                default:
-                    throw unexpectedChar(ch);
-            }
-        } while (true);
-    }
-
-    private void unescape() {
-        int ch = read();
-        switch (ch) {
-            case 'b':
-                buf[storeEnd++] = '\b';
-                break;
-            case 't':
-                buf[storeEnd++] = '\t';
-                break;
-            case 'n':
-                buf[storeEnd++] = '\n';
-                break;
-            case 'f':
-                buf[storeEnd++] = '\f';
-                break;
-            case 'r':
-                buf[storeEnd++] = '\r';
-                break;
-            case '"':
-            case '\\':
-            case '/':
-                buf[storeEnd++] = (char)ch;
-                break;
-            case 'u': {
-                int unicode = 0;
-                for (int i = 0; i < 4; i++) {
-                    int ch3 = read();
-                    int digit = (ch3 >= 0 && ch3 < HEX_LENGTH) ? HEX[ch3] : -1;
-                    if (digit < 0) {
-                        throw unexpectedChar(ch3);
-                    }
-                    unicode = (unicode << 4)|digit;
-                }
-                buf[storeEnd++] = (char)unicode;
-                break;
-            }
-            default:
-                throw unexpectedChar(ch);
-        }
-    }
+    /*
+     * Could be optimized if the parser uses separate methods to match colon
+     * etc (that would avoid the switch statement cost in certain cases)
+     */
+    abstract JsonToken nextToken();
 
-    // Reads a number char. If the char is within the buffer, directly
-    // reads from the buffer. Otherwise, uses read() which takes care
-    // of resizing, filling up the buf, adjusting the pointers
-    private int readNumberChar() {
-        if (readBegin < readEnd) {
-            return buf[readBegin++];
-        } else {
-            storeEnd = readBegin;
-            return read();
-        }
-    }
+    /*
+     * Skips the rest of the current array or object, up to and including
+     * its closing bracket. Only the bracket nesting and string quoting are
+     * checked; the values are neither decoded nor validated.
+     */
+    abstract void skip(boolean array);
 
-    private void readNumber(int ch)  {
-        storeBegin = storeEnd = readBegin-1;
-        // sign
-        if (ch == '-') {
-            this.minus = true;
-            ch = readNumberChar();
-            if (ch < '0' || ch >'9') {
-                throw unexpectedChar(ch);
-            }
+    void setBracket(int depth, boolean array) {
+        int index = depth >>> 6;
+        if (brackets == null || index >= brackets.length) {
+            brackets = (brackets == null) ? new long[1] : Arrays.copyOf(brackets, 2 * brackets.length);
         }
-
-        // int
-        if (ch == '0') {
-            ch = readNumberChar();
+        if (array) {
+            brackets[index] |= 1L << depth;
         } else {
-            do {
-                ch = readNumberChar();
-            } while (ch >= '0' && ch <= '9');
-        }
-
-        // frac
-        if (ch == '.') {
-            this.fracOrExp = true;
-            int count = 0;
-            do {
-                ch = readNumberChar();
-                count++;
-            } while (ch >= '0' && ch <= '9');
-            if (count == 1) {
-                throw unexpectedChar(ch);
-            }
-        }
-
-        // exp
-        if (ch == 'e' || ch == 'E') {
-            this.fracOrExp = true;
-            ch = readNumberChar();
-            if (ch == '+' || ch == '-') {
-                ch = readNumberChar();
-            }
-            int count;
-            for (count = 0; ch >= '0' && ch <= '9'; count++) {
-                ch = readNumberChar();
-            }
-            if (count == 0) {
-                throw unexpectedChar(ch);
-            }
+            brackets[index] &= ~(1L << depth);
         }
-        readBegin--;
-        storeEnd = readBegin;
     }
 
-    private void readTrue() {
-        int ch1 = read();
-        if (ch1 != 'r') {
-            throw expectedChar(ch1, 'r');
-        }
-        int ch2 = read();
-        if (ch2 != 'u') {
-            throw expectedChar(ch2, 'u');
-        }
-        int ch3 = read();
-        if (ch3 != 'e') {
-            throw expectedChar(ch3, 'e');
-        }
-    }
-
-    private void readFalse() {
-        int ch1 = read();
-        if (ch1 != 'a') {
-            throw expectedChar(ch1, 'a');
-        }
-        int ch2 = read();
-        if (ch2 != 'l') {
-            throw expectedChar(ch2, 'l');
-        }
-        int ch3 = read();
-        if (ch3 != 's') {
-            throw expectedChar(ch3, 's');
-        }
-        int ch4 = read();
-        if (ch4 != 'e') {
-            throw expectedChar(ch4, 'e');
-        }
-    }
-
-    private void readNull() {
-        int ch1 = read();
-        if (ch1 != 'u') {
-            throw expectedChar(ch1, 'u');
-        }
-        int ch2 = read();
-        if (ch2 != 'l') {
-            throw expectedChar(ch2, 'l');
-        }
-        int ch3 = read();
-        if (ch3 != 'l') {
-            throw expectedChar(ch3, 'l');
-        }
-    }
-
-    /*
-     * Could be optimized if the parser uses separate methods to match colon
-     * etc (that would avoid the switch statement cost in certain cases)
-     */
-    JsonToken nextToken() {
-        reset();
-        int ch = read();
-
-        // whitespace
-        while (ch == 0x20 || ch == 0x09 || ch == 0x0a || ch == 0x0d) {
-            if (ch == '\r') {
-                ++lineNo;
-                ch = read();
-                if (ch == '\n') {
-                    lastLineOffset = bufferOffset+readBegin;
-                } else {
-                    lastLineOffset = bufferOffset+readBegin-1;
-                    continue;
-                }
-            } else if (ch == '\n') {
-                ++lineNo;
-                lastLineOffset = bufferOffset+readBegin;
-            }
-            ch = read();
-        }
-
-        switch (ch) {
-            case '"':
-                readString();
-                return JsonToken.STRING;
-            case '{':
-                return JsonToken.CURLYOPEN;
-            case '[':
-                return JsonToken.SQUAREOPEN;
-            case ':':
-                return JsonToken.COLON;
-            case ',':
-                return JsonToken.COMMA;
-            case 't':
-                readTrue();
-                return JsonToken.TRUE;
-            case 'f':
-                readFalse();
-                return JsonToken.FALSE;
-            case 'n':
-                readNull();
-                return JsonToken.NULL;
-            case ']':
-                return JsonToken.SQUARECLOSE;
-            case '}':
-                return JsonToken.CURLYCLOSE;
-            case '0':
-            case '1':
-            case '2':
-            case '3':
-            case '4':
-            case '5':
-            case '6':
-            case '7':
-            case '8':
-            case '9':
-            case '-':
-                readNumber(ch);
-                return JsonToken.NUMBER;
-            case -1:
-                return JsonToken.EOF;
-            default:
-                throw unexpectedChar(ch);
-        }
+    boolean isArrayBracket(int depth) {
+        return (brackets[depth >>> 6] & (1L << depth)) != 0;
     }
 
     // Gives the location of the last char. Used for
@@ -428,53 +193,8 @@ final class JsonTokenizer implements Closeable {
         return new JsonLocationImpl(lineNo, bufferOffset +readBegin-lastLineOffset+1, bufferOffset +readBegin);
     }
 
-    private int read() {
-        try {
-            if (readBegin == readEnd) {     // need to fill the buffer
-                int len = fillBuf();
-                if (len == -1) {
-                    return -1;
-                }
-                assert len != 0;
-                readBegin = storeEnd;
-                readEnd = readBegin+len;
-            }
-            return buf[readBegin++];
-        } catch (IOException ioe) {
-            throw new JsonException(JsonMessages.TOKENIZER_IO_ERR(), ioe);
-        }
-    }
-
-    private int fillBuf() throws IOException {
-        if (storeEnd != 0) {
-            int storeLen = storeEnd-storeBegin;
-            if (storeLen > 0) {
-                // there is some store data
-                if (storeLen == buf.length) {
-                    // buffer is full, double the capacity
-                    char[] doubleBuf = Arrays.copyOf(buf, 2 * buf.length);
-                    bufferPool.recycle(buf);
-                    buf = doubleBuf;
-                } else {
-                    // Left shift all the stored data to make space
-                    System.arraycopy(buf, storeBegin, buf, 0, storeLen);
-                    storeEnd = storeLen;
-                    storeBegin = 0;
-                    bufferOffset += readBegin-storeEnd;
-                }
-            } else {
-                storeBegin = storeEnd = 0;
-                bufferOffset += readBegin;
-            }
-        } else {
-            bufferOffset += readBegin;
-        }
-        // Fill the rest of the buf
-        return reader.read(buf, storeEnd, buf.length-storeEnd);
-    }
-
     // state associated with the current token is no more valid
-    private void reset() {
+    void reset() {
         if (storeEnd != 0) {
             storeBegin = 0;
             storeEnd = 0;
@@ -488,6 +208,10 @@ final class JsonTokenizer implements Closeable {
         return new String(buf, storeBegin, storeEnd-storeBegin);
     }
 
+    String getValue(JsonKeyTable keyTable) {
+        return keyTable.get(buf, storeBegin, storeEnd-storeBegin);
+    }
+
     BigDecimal getBigDecimal() {
         if (bd == null) {
             bd = new BigDecimal(buf, storeBegin, storeEnd-storeBegin);
@@ -510,6 +234,84 @@ final class JsonTokenizer implements Closeable {
         }
     }
 
+    long getLong() {
+        // no need to create BigDecimal for long values
+        if (isLong()) {
+            // accumulated as negative, to include Long.MIN_VALUE
+            int storeLen = storeEnd-storeBegin;
+            long num = 0;
+            int i = minus ? 1 : 0;
+            for(; i < storeLen; i++) {
+                num = num * 10 - (buf[storeBegin+i] - '0');
+            }
+            return minus ? num : -num;
+        } else {
+            return getBigDecimal().longValue();
+        }
+    }
+
+    /*
+     * Accumulates up to 18 significant digits of the number. If the
+     * mantissa and the power of ten are both exactly representable as
+     * double, a single multiplication or division gives the correctly
+     * rounded result (Clinger's fast path). Other numbers use BigDecimal.
+     */
+    double getDouble() {
+        if (!fracOrExp) {
+            return isDefinitelyLong() ? (double)getLong() : getBigDecimal().doubleValue();
+        }
+        int i = minus ? storeBegin+1 : storeBegin;
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean frac = false;
+        for(; i < storeEnd; i++) {
+            char ch = buf[i];
+            if (ch == '.') {
+                frac = true;
+                continue;
+            }
+            if (ch == 'e' || ch == 'E') {
+                break;
+            }
+            if (digits > 0 || ch != '0') {
+                if (++digits > 18) {
+                    return getBigDecimal().doubleValue();
+                }
+                mantissa = mantissa * 10 + (ch - '0');
+            }
+            if (frac) {
+                exp10--;
+            }
+        }
+        if (i < storeEnd) {
+            // exponent
+            char ch = buf[++i];
+            boolean expMinus = ch == '-';
+            if (ch == '-' || ch == '+') {
+                i++;
+            }
+            int exp = 0;
+            for(; i < storeEnd; i++) {
+                exp = exp * 10 + (buf[i] - '0');
+                if (exp > 999) {
+                    return getBigDecimal().doubleValue();
+                }
+            }
+            exp10 += expMinus ? -exp : exp;
+        }
+        if (mantissa == 0) {
+            return 0.0;             // as BigDecimal, that has no negative zero
+        }
+        if (mantissa <= MAX_EXACT_MANTISSA && exp10 >= -22 && exp10 <= 22) {
+            double d = (exp10 < 0)
+                    ? mantissa / JsonNumberImpl.POW10[-exp10]
+                    : mantissa * JsonNumberImpl.POW10[exp10];
+            return minus ? -d : d;
+        }
+        return getBigDecimal().doubleValue();
+    }
+
     // returns true for common integer values (1-9 digits).
     // So there are cases it will return false even though the number is int
     boolean isDefinitelyInt() {
@@ -517,26 +319,78 @@ final class JsonTokenizer implements Closeable {
         return !fracOrExp && (storeLen <= 9 || (minus && storeLen == 10));
     }
 
-    boolean isIntegral() {
-        return !fracOrExp || getBigDecimal().scale() == 0;
+    // returns true for common long values (1-18 digits).
+    // So there are cases it will return false even though the number is long
+    boolean isDefinitelyLong() {
+        int storeLen = storeEnd-storeBegin;
+        return !fracOrExp && (storeLen <= 18 || (minus && storeLen == 19));
+    }
+
+    // returns true if the number is an integer in the range of long
+    boolean isLong() {
+        if (isDefinitelyLong()) {
+            return true;
+        }
+        int storeLen = storeEnd-storeBegin;
+        if (fracOrExp || storeLen != (minus ? 20 : 19)) {
+            return false;
+        }
+        // same number of digits as the limit, so compare the digits
+        String limit = minus ? "9223372036854775808" : "9223372036854775807";
+        int begin = minus ? storeBegin+1 : storeBegin;
+        for(int i=0; i < 19; i++) {
+            int diff = buf[begin+i] - limit.charAt(i);
+            if (diff != 0) {
+                return diff < 0;
+            }
+        }
+        return true;
+    }
+
+    // returns true for a decimal fraction without exponent that has up to
+    // 15 significant digits (and at most 22 fraction digits). Such a number
+    // is recovered exactly from its nearest double and the number of
+    // fraction digits.
+    boolean isDefinitelyDouble() {
+        if (!fracOrExp) {
+            return false;
+        }
+        int digits = 0;
+        int i = minus ? storeBegin+1 : storeBegin;
+        for(; i < storeEnd; i++) {
+            char ch = buf[i];
+            if (ch == 'e' || ch == 'E') {
+                return false;
+            }
+            if (ch != '.' && (digits > 0 || ch != '0') && ++digits > 15) {
+                return false;
+            }
+        }
+        return getScale() <= 22;
+    }
+
+    // number of fraction digits
+    int getScale() {
+        int i = storeEnd;
+        while (buf[--i] != '.') {
+        }
+        return storeEnd-i-1;
     }
 
-    @Override
-    public void close() throws IOException {
-        reader.close();
-        bufferPool.recycle(buf);
+    boolean isIntegral() {
+        return !fracOrExp || getBigDecimal().scale() == 0;
     }
 
-    private JsonParsingException unexpectedChar(int ch) {
+    JsonParsingException unexpectedChar(int ch) {
         JsonLocation location = getLastCharLocation();
         return new JsonParsingException(
             JsonMessages.TOKENIZER_UNEXPECTED_CHAR(ch, location), location);
     }
 
-    private JsonParsingException expectedChar(int unexpected, char expected) {
+    JsonParsingException expectedChar(int unexpected, char expected) {
         JsonLocation location = getLastCharLocation();
         return new JsonParsingException(
                 JsonMessages.TOKENIZER_EXPECTED_CHAR(unexpected, location, expected), location);
     }
-    
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,541 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json;
+
+import org.glassfish.json.api.BufferPool;
+
+import javax.json.JsonException;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * JSON Tokenizer that reads UTF-8 encoded bytes directly from an
+ * {@link InputStream}. Structural characters, literals and numbers are
+ * ASCII and are matched on the raw bytes; only the contents of string
+ * tokens are decoded. Decoded string and number values are stored in
+ * {@code buf}.
+ *
+ * <p>
+ * {@code readBegin} and {@code readEnd} index the byte buffer. To keep
+ * {@link javax.json.stream.JsonLocation} in chars, as with the
+ * {@link JsonCharTokenizer}, {@code bufferOffset} is adjusted by the
+ * difference between the bytes consumed and the chars produced for each
+ * multi-byte sequence.
+ *
+ * <p>
+ * Malformed input is replaced with U+FFFD, as an {@link InputStreamReader}
+ * would do.
+ *
+ * @see JsonFeedTokenizer
+ */
+class JsonUtf8Tokenizer extends JsonTokenizer {
+
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    // What the tokenizer is scanning, and so which bytes may end the scan
+    static final int SCAN_ANY = 0;              // any byte
+    static final int SCAN_WHITESPACE = 1;       // a byte that is not whitespace
+    static final int SCAN_STRING = 2;           // '"' or a control char
+    static final int SCAN_NUMBER = 3;           // a byte that is not in a number
+    static final int SCAN_SKIP = 4;             // ']' or '}'
+
+    private final InputStream in;         // null when the bytes are fed
+
+    // Internal buffer that is used for reading the bytes
+    byte[] bytes;
+
+    // One of the SCAN_ constants, for the JsonFeedTokenizer to know what a
+    // scan that ran out of input waits for
+    int scanning;
+
+    JsonUtf8Tokenizer(InputStream in, BufferPool bufferPool) {
+        super(bufferPool);
+        this.in = in;
+        this.bytes = bufferPool.takeBytes();
+    }
+
+    private void readString() {
+        scanning = SCAN_STRING;
+        do {
+            // Copy the block of unescaped ASCII bytes within the current buffer
+            int begin = readBegin;
+            int end = Math.min(readEnd, begin + buf.length - storeEnd);
+            int i = begin;
+            int store = storeEnd;
+            byte b;
+            while (i < end && (b = bytes[i]) >= 0x20 && b != '"' && b != '\\') {
+                buf[store++] = (char)b;
+                i++;
+            }
+            readBegin = i;
+            storeEnd = store;
+
+            // string may be crossing buffer boundaries and may contain
+            // escaped or non-ASCII characters.
+            int ch = read();
+            if (ch >= 0x20 && ch < 0x80 && ch != 0x22 && ch != 0x5c) {
+                storeChar((char)ch);
+                continue;
+            }
+            switch (ch) {
+                case '\\':
+                    scanning = SCAN_ANY;
+                    unescape();
+                    scanning = SCAN_STRING;
+                    break;
+                case '"':
+                    return;
+                default:
+                    if (ch < 0x80) {
+                        throw unexpectedChar(ch);
+                    }
+                    int codePoint = readCodePoint(ch);
+                    if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                        storeChar((char)codePoint);
+                    } else {
+                        storeChar(Character.highSurrogate(codePoint));
+                        storeChar(Character.lowSurrogate(codePoint));
+                    }
+            }
+        } while (true);
+    }
+
+    private void unescape() {
+        int ch = read();
+        switch (ch) {
+            case 'b':
+                storeChar('\b');
+                break;
+            case 't':
+                storeChar('\t');
+                break;
+            case 'n':
+                storeChar('\n');
+                break;
+            case 'f':
+                storeChar('\f');
+                break;
+            case 'r':
+                storeChar('\r');
+                break;
+            case '"':
+            case '\\':
+            case '/':
+                storeChar((char)ch);
+                break;
+            case 'u': {
+                int unicode = 0;
+                for (int i = 0; i < 4; i++) {
+                    int ch3 = read();
+                    int digit = (ch3 >= 0 && ch3 < HEX_LENGTH) ? HEX[ch3] : -1;
+                    if (digit < 0) {
+                        throw unexpectedChar(ch3);
+                    }
+                    unicode = (unicode << 4)|digit;
+                }
+                storeChar((char)unicode);
+                break;
+            }
+            default:
+                throw unexpectedChar(ch);
+        }
+    }
+
+    // Decodes the rest of a multi-byte sequence whose lead byte is already
+    // read. Returns U+FFFD for malformed sequences. A byte that is not a
+    // continuation byte is not consumed, so that it is read again.
+    private int readCodePoint(int lead) {
+        int count;
+        int codePoint;
+        int min;
+        if (lead >= 0xc2 && lead <= 0xdf) {
+            count = 1;
+            codePoint = lead & 0x1f;
+            min = 0x80;
+        } else if (lead >= 0xe0 && lead <= 0xef) {
+            count = 2;
+            codePoint = lead & 0x0f;
+            min = 0x800;
+        } else if (lead >= 0xf0 && lead <= 0xf4) {
+            count = 3;
+            codePoint = lead & 0x07;
+            min = 0x10000;
+        } else {
+            return REPLACEMENT_CHAR;
+        }
+        int consumed = 1;
+        for (int i = 0; i < count; i++) {
+            int ch = read();
+            if ((ch & 0xc0) != 0x80) {
+                if (ch != -1) {
+                    readBegin--;        // unread, it is not part of the sequence
+                }
+                bufferOffset -= consumed-1;
+                return REPLACEMENT_CHAR;
+            }
+            consumed++;
+            codePoint = (codePoint << 6) | (ch & 0x3f);
+        }
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            bufferOffset -= consumed-1;
+            return REPLACEMENT_CHAR;
+        }
+        // Keep the location in chars
+        bufferOffset -= consumed - Character.charCount(codePoint);
+        return codePoint;
+    }
+
+    private void storeChar(char ch) {
+        if (storeEnd == buf.length) {
+            // store is full, double the capacity
+            char[] doubleBuf = Arrays.copyOf(buf, 2 * buf.length);
+            bufferPool.recycle(buf);
+            buf = doubleBuf;
+        }
+        buf[storeEnd++] = ch;
+    }
+
+    // Reads a number char. If the char is within the buffer, directly
+    // reads from the buffer. Otherwise, uses read() which takes care
+    // of filling up the buffer and adjusting the pointers
+    private int readNumberChar() {
+        if (readBegin < readEnd) {
+            return bytes[readBegin++] & 0xff;
+        } else {
+            return read();
+        }
+    }
+
+    private void readNumber(int ch)  {
+        scanning = SCAN_NUMBER;
+        // sign
+        if (ch == '-') {
+            this.minus = true;
+            storeChar('-');
+            ch = readNumberChar();
+            if (ch < '0' || ch >'9') {
+                throw unexpectedChar(ch);
+            }
+        }
+
+        // int
+        if (ch == '0') {
+            storeChar('0');
+            ch = readNumberChar();
+        } else {
+            do {
+                storeChar((char)ch);
+                ch = readNumberChar();
+            } while (ch >= '0' && ch <= '9');
+        }
+
+        // frac
+        if (ch == '.') {
+            this.fracOrExp = true;
+            storeChar('.');
+            int count = 0;
+            for (ch = readNumberChar(); ch >= '0' && ch <= '9'; count++) {
+                storeChar((char)ch);
+                ch = readNumberChar();
+            }
+            if (count == 0) {
+                throw unexpectedChar(ch);
+            }
+        }
+
+        // exp
+        if (ch == 'e' || ch == 'E') {
+            this.fracOrExp = true;
+            storeChar((char)ch);
+            ch = readNumberChar();
+            if (ch == '+' || ch == '-') {
+                storeChar((char)ch);
+                ch = readNumberChar();
+            }
+            int count;
+            for (count = 0; ch >= '0' && ch <= '9'; count++) {
+                storeChar((char)ch);
+                ch = readNumberChar();
+            }
+            if (count == 0) {
+                throw unexpectedChar(ch);
+            }
+        }
+        if (ch != -1) {
+            readBegin--;        // unread the char after the number
+        }
+    }
+
+    private void readTrue() {
+        int ch1 = read();
+        if (ch1 != 'r') {
+            throw expectedChar(ch1, 'r');
+        }
+        int ch2 = read();
+        if (ch2 != 'u') {
+            throw expectedChar(ch2, 'u');
+        }
+        int ch3 = read();
+        if (ch3 != 'e') {
+            throw expectedChar(ch3, 'e');
+        }
+    }
+
+    private void readFalse() {
+        int ch1 = read();
+        if (ch1 != 'a') {
+            throw expectedChar(ch1, 'a');
+        }
+        int ch2 = read();
+        if (ch2 != 'l') {
+            throw expectedChar(ch2, 'l');
+        }
+        int ch3 = read();
+        if (ch3 != 's') {
+            throw expectedChar(ch3, 's');
+        }
+        int ch4 = read();
+        if (ch4 != 'e') {
+            throw expectedChar(ch4, 'e');
+        }
+    }
+
+    private void readNull() {
+        int ch1 = read();
+        if (ch1 != 'u') {
+            throw expectedChar(ch1, 'u');
+        }
+        int ch2 = read();
+        if (ch2 != 'l') {
+            throw expectedChar(ch2, 'l');
+        }
+        int ch3 = read();
+        if (ch3 != 'l') {
+            throw expectedChar(ch3, 'l');
+        }
+    }
+
+    @Override
+    JsonToken nextToken() {
+        reset();
+        scanning = SCAN_WHITESPACE;
+        int ch = read();
+
+        // whitespace
+        while (ch == 0x20 || ch == 0x09 || ch == 0x0a || ch == 0x0d) {
+            if (ch == '\r') {
+                ++lineNo;
+                ch = read();
+                if (ch == '\n') {
+                    lastLineOffset = bufferOffset+readBegin;
+                } else {
+                    lastLineOffset = bufferOffset+readBegin-1;
+                    continue;
+                }
+            } else if (ch == '\n') {
+                ++lineNo;
+                lastLineOffset = bufferOffset+readBegin;
+            }
+            ch = read();
+        }
+
+        scanning = SCAN_ANY;
+        switch (ch) {
+            case '"':
+                readString();
+                return JsonToken.STRING;
+            case '{':
+                return JsonToken.CURLYOPEN;
+            case '[':
+                return JsonToken.SQUAREOPEN;
+            case ':':
+                return JsonToken.COLON;
+            case ',':
+                return JsonToken.COMMA;
+            case 't':
+                readTrue();
+                return JsonToken.TRUE;
+            case 'f':
+                readFalse();
+                return JsonToken.FALSE;
+            case 'n':
+                readNull();
+                return JsonToken.NULL;
+            case ']':
+                return JsonToken.SQUARECLOSE;
+            case '}':
+                return JsonToken.CURLYCLOSE;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '-':
+                readNumber(ch);
+                return JsonToken.NUMBER;
+            case -1:
+                return JsonToken.EOF;
+            default:
+                throw unexpectedChar(ch < 0x80 ? ch : readCodePoint(ch));
+        }
+    }
+
+    @Override
+    void skip(boolean array) {
+        reset();
+        scanning = SCAN_SKIP;
+        int depth = 0;
+        setBracket(depth, array);
+        boolean cr = false;
+        do {
+            int ch = read();
+            switch (ch) {
+                case '"':
+                    skipString();
+                    break;
+                case '[':
+                case '{':
+                    setBracket(++depth, ch == '[');
+                    break;
+                case ']':
+                case '}':
+                    if (isArrayBracket(depth) != (ch == ']')) {
+                        throw unexpectedChar(ch);
+                    }
+                    depth--;
+                    break;
+                case '\r':
+                    ++lineNo;
+                    lastLineOffset = bufferOffset+readBegin;
+                    cr = true;
+                    continue;
+                case '\n':
+                    if (!cr) {
+                        ++lineNo;
+                    }
+                    lastLineOffset = bufferOffset+readBegin;
+                    break;
+                case -1:
+                    throw unexpectedChar(ch);
+                default:
+                    // other values and punctuation are not checked
+            }
+            cr = false;
+        } while (depth >= 0);
+    }
+
+    private void skipString() {
+        do {
+            // Skip unescaped byte block within the current buffer. To keep
+            // the location in chars, continuation bytes are not counted and
+            // a 4 byte sequence counts as two chars.
+            int i = readBegin;
+            int end = readEnd;
+            int extra = 0;
+            byte b;
+            while (i < end && ((b = bytes[i]) >= 0x20 || b < 0) && b != '\\' && b != '"') {
+                if ((b & 0xc0) == 0x80) {
+                    extra++;
+                } else if ((b & 0xf8) == 0xf0) {
+                    extra--;
+                }
+                i++;
+            }
+            bufferOffset -= extra;
+            readBegin = i;
+            int ch = read();
+            if (ch == '"') {
+                return;
+            } else if (ch == '\\') {
+                ch = read();     // escaped char, hex digits of \\u are skipped as chars
+            }
+            if (ch < 0x20) {
+                throw unexpectedChar(ch);
+            }
+            if (ch >= 0x80) {
+                readBegin--;     // non-ASCII, let the block loop count it
+            }
+        } while (true);
+    }
+
+    private int read() {
+        if (readBegin == readEnd && !fill()) {
+            return -1;
+        }
+        return bytes[readBegin++] & 0xff;
+    }
+
+    // Called when all the bytes in the buffer are read. Returns false at
+    // the end of the input, otherwise more bytes are available from readBegin.
+    boolean fill() {
+        try {
+            bufferOffset += readBegin;
+            readBegin = readEnd = 0;
+            int len;
+            do {
+                len = in.read(bytes, 0, bytes.length);
+            } while (len == 0);
+            if (len == -1) {
+                return false;
+            }
+            readEnd = len;
+            return true;
+        } catch (IOException ioe) {
+            throw new JsonException(JsonMessages.TOKENIZER_IO_ERR(), ioe);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+        bufferPool.recycle(buf);
+        bufferPool.recycleBytes(bytes);
+    }
+
+}
@@ -47,6 +47,7 @@ import javax.json.JsonWriterFactory;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -55,28 +56,44 @@ import java.util.Map;
 class JsonWriterFactoryImpl implements JsonWriterFactory {
     private final Map<String, ?> config;        // unmodifiable map
     private final boolean prettyPrinting;
+    private final boolean multipleDocuments;
+    private final boolean cacheText;
     private final BufferPool bufferPool;
 
     JsonWriterFactoryImpl(Map<String, ?> config, boolean prettyPrinting,
             BufferPool bufferPool) {
+        this(config, prettyPrinting, false, bufferPool);
+    }
+
+    JsonWriterFactoryImpl(Map<String, ?> config, boolean prettyPrinting,
+            boolean multipleDocuments, BufferPool bufferPool) {
+        this(config, prettyPrinting, multipleDocuments, false, bufferPool);
+    }
+
+    JsonWriterFactoryImpl(Map<String, ?> config, boolean prettyPrinting,
+            boolean multipleDocuments, boolean cacheText, BufferPool bufferPool) {
         this.config = config;
         this.prettyPrinting = prettyPrinting;
+        this.multipleDocuments = multipleDocuments;
+        this.cacheText = cacheText;
         this.bufferPool = bufferPool;
     }
 
     @Override
     public JsonWriter createWriter(Writer writer) {
-        return new JsonWriterImpl(writer, prettyPrinting, bufferPool);
+        return new JsonWriterImpl(writer, prettyPrinting, multipleDocuments, cacheText,
+                bufferPool);
     }
 
     @Override
     public JsonWriter createWriter(OutputStream out) {
-        return new JsonWriterImpl(out, prettyPrinting, bufferPool);
+        return createWriter(out, StandardCharsets.UTF_8);
     }
 
     @Override
     public JsonWriter createWriter(OutputStream out, Charset charset) {
-        return new JsonWriterImpl(out, charset, prettyPrinting, bufferPool);
+        return new JsonWriterImpl(out, charset, prettyPrinting, multipleDocuments,
+                cacheText, bufferPool);
     }
 
     @Override
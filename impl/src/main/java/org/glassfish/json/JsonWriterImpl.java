@@ -60,6 +60,8 @@ class JsonWriterImpl implements JsonWriter {
 
     private final JsonGeneratorImpl generator;
     private boolean writeDone;
+    // Whether a sequence of JSON texts is written, one per write call
+    private final boolean multipleDocuments;
     private final NoFlushOutputStream os;
 
     JsonWriterImpl(Writer writer, BufferPool bufferPool) {
@@ -67,9 +69,20 @@ class JsonWriterImpl implements JsonWriter {
     }
 
     JsonWriterImpl(Writer writer, boolean prettyPrinting, BufferPool bufferPool) {
+        this(writer, prettyPrinting, false, bufferPool);
+    }
+
+    JsonWriterImpl(Writer writer, boolean prettyPrinting, boolean multipleDocuments,
+            BufferPool bufferPool) {
+        this(writer, prettyPrinting, multipleDocuments, false, bufferPool);
+    }
+
+    JsonWriterImpl(Writer writer, boolean prettyPrinting, boolean multipleDocuments,
+            boolean cacheText, BufferPool bufferPool) {
         generator = prettyPrinting
-                ? new JsonPrettyGeneratorImpl(writer, bufferPool)
-                : new JsonGeneratorImpl(writer, bufferPool);
+                ? new JsonPrettyGeneratorImpl(writer, multipleDocuments, bufferPool)
+                : new JsonGeneratorImpl(writer, multipleDocuments, cacheText, bufferPool);
+        this.multipleDocuments = multipleDocuments;
         os = null;
     }
 
@@ -83,12 +96,23 @@ class JsonWriterImpl implements JsonWriter {
 
     JsonWriterImpl(OutputStream out, Charset charset,
                    boolean prettyPrinting, BufferPool bufferPool) {
+        this(out, charset, prettyPrinting, false, bufferPool);
+    }
+
+    JsonWriterImpl(OutputStream out, Charset charset, boolean prettyPrinting,
+                   boolean multipleDocuments, BufferPool bufferPool) {
+        this(out, charset, prettyPrinting, multipleDocuments, false, bufferPool);
+    }
+
+    JsonWriterImpl(OutputStream out, Charset charset, boolean prettyPrinting,
+                   boolean multipleDocuments, boolean cacheText, BufferPool bufferPool) {
         // Decorating the given stream, so that buffered contents can be
         // written without actually flushing the stream.
         this.os = new NoFlushOutputStream(out);
         generator = prettyPrinting
-                ? new JsonPrettyGeneratorImpl(os, charset, bufferPool)
-                : new JsonGeneratorImpl(os, charset, bufferPool);
+                ? new JsonPrettyGeneratorImpl(os, charset, multipleDocuments, bufferPool)
+                : new JsonGeneratorImpl(os, charset, multipleDocuments, cacheText, bufferPool);
+        this.multipleDocuments = multipleDocuments;
     }
 
     @Override
@@ -96,14 +120,17 @@ class JsonWriterImpl implements JsonWriter {
         if (writeDone) {
             throw new IllegalStateException(JsonMessages.WRITER_WRITE_ALREADY_CALLED());
         }
-        writeDone = true;
-        generator.writeStartArray();
-        for(JsonValue value : array) {
-            generator.write(value);
+        writeDone = !multipleDocuments;
+        if (!generator.writeSerialized(array)) {
+            generator.writeStartArray();
+            for(JsonValue value : array) {
+                generator.write(value);
+            }
+            generator.writeEnd();
         }
-        generator.writeEnd();
-        // Flush the generator's buffered contents. This won't work for byte
-        // streams as intermediary OutputStreamWriter buffers.
+        // Flush the generator's buffered contents. For UTF-8 byte streams,
+        // the generator writes the bytes directly. For other encodings, this
+        // won't work as intermediary OutputStreamWriter buffers.
         generator.flushBuffer();
         // Flush buffered contents but not the byte stream. generator.flush()
         // does OutputStreamWriter#flushBuffer (package private) and underlying
@@ -118,14 +145,17 @@ class JsonWriterImpl implements JsonWriter {
         if (writeDone) {
             throw new IllegalStateException(JsonMessages.WRITER_WRITE_ALREADY_CALLED());
         }
-        writeDone = true;
-        generator.writeStartObject();
-        for(Map.Entry<String, JsonValue> e : object.entrySet()) {
-            generator.write(e.getKey(), e.getValue());
+        writeDone = !multipleDocuments;
+        if (!generator.writeSerialized(object)) {
+            generator.writeStartObject();
+            for(Map.Entry<String, JsonValue> e : object.entrySet()) {
+                generator.write(e.getKey(), e.getValue());
+            }
+            generator.writeEnd();
         }
-        generator.writeEnd();
-        // Flush the generator's buffered contents. This won't work for byte
-        // streams as intermediary OutputStreamWriter buffers.
+        // Flush the generator's buffered contents. For UTF-8 byte streams,
+        // the generator writes the bytes directly. For other encodings, this
+        // won't work as intermediary OutputStreamWriter buffers.
         generator.flushBuffer();
         // Flush buffered contents but not the byte stream. generator.flush()
         // does OutputStreamWriter#flushBuffer (package private) and underlying
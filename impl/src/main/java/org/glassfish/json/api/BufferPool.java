@@ -42,6 +42,8 @@ package org.glassfish.json.api;
 
 /**
  * char[] pool that pool instances of char[] which are expensive to create.
+ * The pool may also pool byte[] instances that are used when the input
+ * or output is a byte stream.
  *
  * @author Jitendra Kotamraju
  */
@@ -63,4 +65,25 @@ public interface BufferPool {
      */
     void recycle(char[] buf);
 
+    /**
+     * Gets a new byte[] object from the pool.
+     *
+     * <p>
+     * If no object is available in the pool, this method creates a new one.
+     * The default implementation always creates a new one.
+     *
+     * @return
+     *      always non-null.
+     */
+    default byte[] takeBytes() {
+        return new byte[8192];
+    }
+
+    /**
+     * Returns a byte[] object back to the pool. The default implementation
+     * does nothing.
+     */
+    default void recycleBytes(byte[] buf) {
+    }
+
 }
@@ -0,0 +1,113 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.api;
+
+/**
+ * Configuration properties that are specific to this implementation. They
+ * are passed in the config map of the factories, for e.g.
+ * {@link javax.json.Json#createParserFactory(java.util.Map)}, the same way
+ * as {@link javax.json.stream.JsonGenerator#PRETTY_PRINTING}. A property is
+ * enabled if the config map contains it; its value could be anything.
+ */
+public final class JsonConfig {
+
+    /**
+     * Configuration property to read or write a sequence of JSON texts,
+     * as in the concatenated JSON, and newline delimited JSON (NDJSON or
+     * JSON Lines) formats.
+     *
+     * <p>
+     * A parser reports the events of all the texts, and its
+     * {@code hasNext()} returns {@code false} only at the end of the input.
+     * A reader's {@code read()}, {@code readObject()} and {@code readArray()}
+     * can be called repeatedly, and return {@code null} at the end of the
+     * input. A generator or writer accepts any number of texts, and writes
+     * a newline after each text.
+     *
+     * <p>
+     * The same tokenizer and pooled buffers are used for all the texts.
+     */
+    public static final String MULTIPLE_DOCUMENTS = "org.glassfish.json.api.JsonConfig.multipleDocuments";
+
+    /**
+     * Configuration property to share the key names among the parsers and
+     * readers of a factory.
+     *
+     * <p>
+     * A repeated key name is looked up in a bounded table of the recent key
+     * names, and the same String instance is returned for it instead of a
+     * new one. That saves the allocations when the same keys repeat across
+     * the documents, and lookups with such keys in hash maps are faster
+     * when the key instances are identical.
+     */
+    public static final String KEY_NAME_TABLE = "org.glassfish.json.api.JsonConfig.keyNameTable";
+
+    /**
+     * Configuration property to read the objects and arrays lazily.
+     *
+     * <p>
+     * A reader keeps the text of the input, and only checks its structure
+     * when a value is read. An object or array is parsed when it is first
+     * accessed, one level at a time. That saves the work for the parts of
+     * a large document that are never accessed. The other syntax errors are
+     * reported as {@code JsonParsingException} when the value is accessed.
+     */
+    public static final String LAZY_READING = "org.glassfish.json.api.JsonConfig.lazyReading";
+
+    /**
+     * Configuration property to keep the serialized text of the objects and
+     * arrays that are written.
+     *
+     * <p>
+     * A generator or writer keeps the compact text of an immutable object or
+     * array of this implementation, when it is first written, and copies
+     * that text when the same value is written again, instead of generating
+     * its members. The text is softly referenced by the value, so it is
+     * released under memory pressure. The text is used, and kept, only when
+     * the pretty printing is not enabled. The generators without this
+     * property, and {@code toString()}, do not keep the text.
+     */
+    public static final String SERIALIZED_TEXT_CACHE = "org.glassfish.json.api.JsonConfig.serializedTextCache";
+
+    private JsonConfig() {
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.api;
+
+import javax.json.stream.JsonParser;
+import java.nio.ByteBuffer;
+
+/**
+ * A non-blocking {@link JsonParser} to which the caller pushes the input,
+ * as chunks of UTF-8 encoded bytes, instead of the parser reading it from
+ * a stream. For e.g. an NIO or asynchronous server can parse a request
+ * body as its chunks arrive, without a thread blocking on it and without
+ * collecting the whole body first.
+ *
+ * <p>
+ * {@link #next()} returns {@code null} if the next event needs more input
+ * than is fed so far. The partial token is kept and scanned again after
+ * more input is fed with {@link #feed(ByteBuffer)}. {@link #hasNext()}
+ * returns {@code false} only after {@link #endOfInput()} is called and all
+ * the events are returned. For example:
+ *
+ * <pre>
+ * <code>
+ * // on receiving a chunk
+ * parser.feed(chunk);
+ * Event event;
+ * while (parser.hasNext() &amp;&amp; (event = parser.next()) != null) {
+ *     // process the event
+ * }
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * {@link #getObject()}, {@link #getArray()}, {@link #getValue()},
+ * {@link #skipArray()} and {@link #skipObject()} throw
+ * {@code IllegalStateException} if the rest of the value is not fed yet;
+ * the parser is left unchanged and the call can be repeated after more
+ * input is fed. The stream methods are not supported.
+ *
+ * <p>
+ * A feed parser is created using
+ * {@link org.glassfish.json.JsonProviderImpl#createFeedParser(java.util.Map)}.
+ */
+public interface JsonFeedParser extends JsonParser {
+
+    /**
+     * Feeds the next chunk of input to the parser. All the remaining bytes
+     * of the buffer are consumed; the buffer can be reused once this method
+     * returns.
+     *
+     * @param bytes next chunk of the UTF-8 encoded input
+     * @throws IllegalStateException if {@link #endOfInput()} is already called
+     */
+    void feed(ByteBuffer bytes);
+
+    /**
+     * Indicates that all the input is fed. After this, the parser reports
+     * the remaining events, and a token that is still incomplete is a
+     * parsing error.
+     */
+    void endOfInput();
+
+}
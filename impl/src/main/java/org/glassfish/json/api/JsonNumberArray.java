@@ -0,0 +1,87 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.api;
+
+import javax.json.JsonArray;
+
+/**
+ * A {@link JsonArray} whose number values can be copied to a primitive
+ * array in bulk. All the arrays that are built or read by this
+ * implementation are {@code JsonNumberArray}s.
+ *
+ * <p>
+ * An array whose values are all int, long or short decimal fraction
+ * numbers is backed by a primitive array, instead of a {@code JsonNumber}
+ * object per value. The bulk accessors then copy the primitive array.
+ */
+public interface JsonNumberArray extends JsonArray {
+
+    /**
+     * Returns the values of this array as ints. Each value is converted as
+     * by {@link javax.json.JsonNumber#intValue()}.
+     *
+     * @return a new array with the int values
+     * @throws ClassCastException if a value is not assignable to
+     *      {@code JsonNumber}
+     */
+    int[] toIntArray();
+
+    /**
+     * Returns the values of this array as longs. Each value is converted as
+     * by {@link javax.json.JsonNumber#longValue()}.
+     *
+     * @return a new array with the long values
+     * @throws ClassCastException if a value is not assignable to
+     *      {@code JsonNumber}
+     */
+    long[] toLongArray();
+
+    /**
+     * Returns the values of this array as doubles. Each value is converted
+     * as by {@link javax.json.JsonNumber#doubleValue()}.
+     *
+     * @return a new array with the double values
+     * @throws ClassCastException if a value is not assignable to
+     *      {@code JsonNumber}
+     */
+    double[] toDoubleArray();
+
+}
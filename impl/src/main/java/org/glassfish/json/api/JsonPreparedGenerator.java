@@ -0,0 +1,204 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.api;
+
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A {@link JsonGenerator} that writes the names of object members from
+ * {@link JsonPreparedName}s. All the generators that are created by this
+ * implementation are {@code JsonPreparedGenerator}s.
+ *
+ * <p>
+ * The methods behave the same as the corresponding {@code JsonGenerator}
+ * methods that take a {@code String} name. For example:
+ *
+ * <pre>
+ * <code>
+ * JsonPreparedName id = provider.createPreparedName("id");
+ * JsonPreparedName name = provider.createPreparedName("name");
+ * ...
+ * JsonPreparedGenerator generator = (JsonPreparedGenerator)factory.createGenerator(out);
+ * generator.writeStartObject();
+ * generator.write(id, 1234).write(name, "Duke");
+ * generator.writeEnd();
+ * </code>
+ * </pre>
+ */
+public interface JsonPreparedGenerator extends JsonGenerator {
+
+    /**
+     * Writes the JSON name/start object character pair in the current
+     * object context.
+     *
+     * @param name a prepared name
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#writeStartObject(String)
+     */
+    JsonPreparedGenerator writeStartObject(JsonPreparedName name);
+
+    /**
+     * Writes the JSON name/start array character pair with in the current
+     * object context.
+     *
+     * @param name a prepared name
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#writeStartArray(String)
+     */
+    JsonPreparedGenerator writeStartArray(JsonPreparedName name);
+
+    /**
+     * Writes a JSON name/value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, JsonValue)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, JsonValue value);
+
+    /**
+     * Writes a JSON name/string value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/string value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, String)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, String value);
+
+    /**
+     * Writes a JSON name/number value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/number value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, BigInteger)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, BigInteger value);
+
+    /**
+     * Writes a JSON name/number value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/number value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, BigDecimal)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, BigDecimal value);
+
+    /**
+     * Writes a JSON name/number value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/number value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, int)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, int value);
+
+    /**
+     * Writes a JSON name/number value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/number value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, long)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, long value);
+
+    /**
+     * Writes a JSON name/number value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/number value pair
+     * @return this generator
+     * @throws NumberFormatException if the value is Not-a-Number (NaN) or
+     *      infinity
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, double)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, double value);
+
+    /**
+     * Writes a JSON name/boolean value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @param value a value in the JSON name/boolean value pair
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#write(String, boolean)
+     */
+    JsonPreparedGenerator write(JsonPreparedName name, boolean value);
+
+    /**
+     * Writes a JSON name/null value pair in the current object context.
+     *
+     * @param name a prepared name
+     * @return this generator
+     * @throws javax.json.stream.JsonGenerationException if this method is
+     *      not called within an object context
+     * @see JsonGenerator#writeNull(String)
+     */
+    JsonPreparedGenerator writeNull(JsonPreparedName name);
+
+}
@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.tests;
+
+import junit.framework.TestCase;
+import org.glassfish.json.JsonProviderImpl;
+import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonArraySpliterator;
+
+import javax.json.*;
+import javax.json.stream.JsonCollectors;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tests splitting of a JSON array with JsonArraySpliterator.
+ */
+public class JsonArraySpliteratorTest extends TestCase {
+    public JsonArraySpliteratorTest(String testName) {
+        super(testName);
+    }
+
+    private static JsonArraySpliterator spliterator(ByteBuffer buffer) {
+        return new JsonProviderImpl().createArraySpliterator(buffer, null);
+    }
+
+    private static String bigArray() {
+        StringBuilder sb = new StringBuilder("\n [");
+        for(int i=0; i < 5000; i++) {
+            if (i > 0) {
+                sb.append(",\n  ");
+            }
+            switch (i%4) {
+                case 0:
+                    sb.append("{\"id\":").append(i).append(", \"s\":\"a,b]}\\\",\\\\\"}");
+                    break;
+                case 1:
+                    sb.append("[").append(i).append(", [\"\u00e9,\u20ac\"], {}]");
+                    break;
+                case 2:
+                    sb.append('"').append(i).append(",\\\"\"");
+                    break;
+                default:
+                    sb.append(i);
+            }
+        }
+        return sb.append("]\n").toString();
+    }
+
+    public void testSequential() {
+        String json = bigArray();
+        JsonArray expected = Json.createReader(new StringReader(json)).readArray();
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        JsonArray got = StreamSupport.stream(spliterator(buffer), false)
+                .collect(JsonCollectors.toJsonArray());
+        assertEquals(expected, got);
+    }
+
+    public void testParallel() {
+        String json = bigArray();
+        JsonArray expected = Json.createReader(new StringReader(json)).readArray();
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        List<JsonValue> got = StreamSupport.stream(spliterator(buffer), true)
+                .collect(Collectors.toList());
+        assertEquals(expected, got);
+    }
+
+    public void testSplitAll() {
+        String json = bigArray();
+        JsonArray expected = Json.createReader(new StringReader(json)).readArray();
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+
+        // Split as much as possible, and traverse the parts in order
+        List<Spliterator<JsonValue>> parts = new ArrayList<>();
+        split(spliterator(buffer), parts);
+        assertTrue(parts.size() > 1);
+        List<JsonValue> got = new ArrayList<>();
+        for(Spliterator<JsonValue> part : parts) {
+            part.forEachRemaining(got::add);
+        }
+        assertEquals(expected, got);
+    }
+
+    public void testSplitAllSmallBuffers() {
+        String json = bigArray();
+        JsonArray expected = Json.createReader(new StringReader(json)).readArray();
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        JsonArraySpliterator spliterator = new JsonProviderImpl().createArraySpliterator(buffer,
+                Collections.singletonMap(BufferPool.class.getName(), new JsonParserTest.MyBufferPool(1)));
+
+        List<Spliterator<JsonValue>> parts = new ArrayList<>();
+        split(spliterator, parts);
+        assertTrue(parts.size() > 1);
+        List<JsonValue> got = new ArrayList<>();
+        for(Spliterator<JsonValue> part : parts) {
+            part.forEachRemaining(got::add);
+        }
+        assertEquals(expected, got);
+    }
+
+    private static void split(Spliterator<JsonValue> spliterator, List<Spliterator<JsonValue>> parts) {
+        Spliterator<JsonValue> prefix = spliterator.trySplit();
+        if (prefix != null) {
+            split(prefix, parts);
+        }
+        if (prefix != null && spliterator.estimateSize() > 0) {
+            split(spliterator, parts);
+        } else {
+            parts.add(spliterator);
+        }
+    }
+
+    public void testEmptyArray() {
+        ByteBuffer buffer = ByteBuffer.wrap(" [ ] ".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, StreamSupport.stream(spliterator(buffer), true).count());
+    }
+
+    public void testNotArray() {
+        ByteBuffer buffer = ByteBuffer.wrap("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        try {
+            spliterator(buffer);
+            fail("JsonArraySpliterator should fail for JSON object");
+        } catch (JsonException expected) {
+            // no-op
+        }
+    }
+
+}
@@ -41,10 +41,12 @@
 package org.glassfish.json.tests;
 
 import junit.framework.TestCase;
+import org.glassfish.json.api.JsonNumberArray;
 
 import javax.json.*;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -135,4 +137,61 @@ public class JsonArrayTest extends TestCase {
         }
     }
 
+    public void testNumberArrays() throws Exception {
+        String[] arrays = {
+                "[1,-2,2147483647,-2147483648]",
+                "[1,9223372036854775807,-9223372036854775808,3000000000]",
+                "[1,2.5,-0.125,100.10,0.000001,-7]",
+                "[1,2.5,9223372036854775807]",
+                "[1,2.5,1E+3,12345678901234567890]" };
+        for (String json : arrays) {
+            JsonArray array = Json.createReader(new StringReader(json)).readArray();
+            assertEquals(json, array.toString());
+            JsonArrayBuilder builder = Json.createArrayBuilder();
+            String[] numbers = json.substring(1, json.length() - 1).split(",");
+            for (String number : numbers) {
+                builder.add(new BigDecimal(number));
+            }
+            JsonArray expected = builder.build();
+            assertEquals(expected, array);
+            assertEquals(array, expected);
+            assertEquals(expected.hashCode(), array.hashCode());
+            assertEquals(expected.getValuesAs(JsonNumber.class), array.getValuesAs(JsonNumber.class));
+
+            JsonNumberArray numberArray = (JsonNumberArray)array;
+            int[] ints = numberArray.toIntArray();
+            long[] longs = numberArray.toLongArray();
+            double[] doubles = numberArray.toDoubleArray();
+            for (int i = 0; i < numbers.length; i++) {
+                BigDecimal number = new BigDecimal(numbers[i]);
+                assertEquals(number.intValue(), ints[i]);
+                assertEquals(number.intValue(), array.getInt(i));
+                assertEquals(number.longValue(), longs[i]);
+                assertEquals(number.doubleValue(), doubles[i]);
+                assertEquals(number.scale() == 0, array.getJsonNumber(i).isIntegral());
+            }
+        }
+    }
+
+    public void testBuilderNumberArray() {
+        JsonArray array = Json.createArrayBuilder().add(1).add(2L).add(Long.MAX_VALUE).build();
+        assertEquals("[1,2,9223372036854775807]", array.toString());
+        assertEquals(Long.MAX_VALUE, ((JsonNumberArray)array).toLongArray()[2]);
+        assertEquals(1, ((JsonNumberArray)array).toIntArray()[0]);
+        try {
+            array.add(JsonValue.NULL);
+            fail("JsonArray should be immutable");
+        } catch (UnsupportedOperationException expected) {
+            // no-op
+        }
+
+        JsonNumberArray mixed = (JsonNumberArray)Json.createArrayBuilder().add(1).add("a").build();
+        try {
+            mixed.toIntArray();
+            fail("toIntArray() should fail for a string value");
+        } catch (ClassCastException expected) {
+            // no-op
+        }
+    }
+
 }
@@ -43,6 +43,8 @@ package org.glassfish.json.tests;
 import junit.framework.TestCase;
 
 import javax.json.*;
+import java.io.StringReader;
+import java.util.*;
 
 /**
  * @author Jitendra Kotamraju
@@ -100,6 +102,102 @@ public class JsonBuilderTest extends TestCase {
                 .build();
     }
 
+    public void testEditLargeObject() throws Exception {
+        Random random = new Random(42);
+        Map<String, JsonValue> expected = new LinkedHashMap<>();
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.add("key" + i, i);
+            expected.put("key" + i, value(i));
+        }
+        JsonObject object = builder.build();
+        for (int i = 0; i < 2000; i++) {
+            // "Aa" and "BB" have the same hash code
+            String name = (i % 10 == 0) ? (random.nextBoolean() ? "Aa" : "BB")
+                    : "key" + random.nextInt(120);
+            JsonObjectBuilder edit = Json.createObjectBuilder(object);
+            if (random.nextInt(3) == 0) {
+                edit.remove(name);
+                expected.remove(name);
+            } else {
+                edit.add(name, i);
+                expected.put(name, value(i));
+            }
+            JsonObject edited = edit.build();
+            assertEquals(expected, edited);
+            assertEquals(expected.get(name), edited.get(name));
+            object = edited;
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(object.keySet()));
+        assertEquals(object, Json.createReader(new StringReader(object.toString())).readObject());
+    }
+
+    public void testEditLargeArray() throws Exception {
+        Random random = new Random(42);
+        List<JsonValue> expected = new ArrayList<>();
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.add("value" + i);
+            expected.add(value("value" + i));
+        }
+        JsonArray array = builder.build();
+        for (int i = 0; i < 2000; i++) {
+            JsonArrayBuilder edit = Json.createArrayBuilder(array);
+            int op = random.nextInt(3);
+            if (op == 0 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                edit.remove(index);
+                expected.remove(index);
+            } else if (op == 1 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                edit.set(index, i);
+                expected.set(index, value(i));
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                edit.add(index, i);
+                expected.add(index, value(i));
+            }
+            array = edit.build();
+            assertEquals(expected, array);
+        }
+        assertEquals(array, Json.createReader(new StringReader(array.toString())).readArray());
+    }
+
+    public void testPointerEditLargeDocument() throws Exception {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        for (int i = 0; i < 100; i++) {
+            JsonArrayBuilder values = Json.createArrayBuilder();
+            for (int j = 0; j < 100; j++) {
+                values.add(j);
+            }
+            builder.add("key" + i, Json.createObjectBuilder().add("values", values));
+        }
+        JsonObject original = builder.build();
+        JsonObject document = original;
+        for (int i = 0; i < 100; i++) {
+            document = new JsonPointer("/key" + i + "/values/" + i).replace(document, value(-i));
+        }
+        document = new JsonPointer("/key5/values/-").add(document, value(100));
+        document = new JsonPointer("/key6/values/0").remove(document);
+        document = new JsonPointer("/key7").remove(document);
+
+        assertEquals(99, document.size());
+        assertEquals(-42, document.getJsonObject("key42").getJsonArray("values").getInt(42));
+        assertEquals(100, document.getJsonObject("key5").getJsonArray("values").getInt(100));
+        assertEquals(-6, document.getJsonObject("key6").getJsonArray("values").getInt(5));
+        assertFalse(document.containsKey("key7"));
+        assertEquals(42, original.getJsonObject("key42").getJsonArray("values").getInt(42));
+        assertEquals(document, Json.createReader(new StringReader(document.toString())).readObject());
+    }
+
+    private static JsonValue value(int value) {
+        return Json.createArrayBuilder().add(value).build().get(0);
+    }
+
+    private static JsonValue value(String value) {
+        return Json.createArrayBuilder().add(value).build().get(0);
+    }
+
     static JsonObject buildAddress() {
         return Json.createObjectBuilder()
                 .add("streetAddress", "21 2nd Street")
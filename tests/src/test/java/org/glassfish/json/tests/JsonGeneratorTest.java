@@ -41,11 +41,16 @@
 package org.glassfish.json.tests;
 
 import junit.framework.TestCase;
+import org.glassfish.json.JsonProviderImpl;
 import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonPreparedGenerator;
+import org.glassfish.json.api.JsonPreparedName;
 
 import javax.json.*;
 import javax.json.stream.*;
 import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -409,6 +414,103 @@ public class JsonGeneratorTest extends TestCase {
         }
     }
 
+    public void testLongGenerator() throws Exception {
+        long[] nums = { 0, -1, 9, 10, 99, 100, Integer.MAX_VALUE + 1L,
+                Integer.MIN_VALUE - 1L, 999999999999999999L, 1000000000000000000L,
+                Long.MAX_VALUE, Long.MIN_VALUE };
+        StringBuilder expected = new StringBuilder();
+        StringWriter sw = new StringWriter();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonGenerator generator = Json.createGenerator(sw).writeStartArray();
+        JsonGenerator utf8 = Json.createGenerator(baos).writeStartObject();
+        Random r = new Random(1);
+        for(int i=0; i < 10000; i++) {
+            long num = i < nums.length ? nums[i] : r.nextLong() >> r.nextInt(64);
+            generator.write(num);
+            utf8.write("n", num);
+            expected.append(i == 0 ? "" : ",").append(num);
+        }
+        generator.writeEnd().close();
+        utf8.writeEnd().close();
+        assertEquals("[" + expected + "]", sw.toString());
+        assertEquals("{" + expected.toString().replaceAll("(^|,)", "$1\"n\":") + "}",
+                baos.toString("UTF-8"));
+    }
+
+    public void testDoubleGenerator() throws Exception {
+        // the shortest decimal that rounds to the double
+        assertEquals("[0.0,-0.0,1.0,100.0,0.001,1.0E-4,1234567.0,1.0E7,4.35,"
+                + "1.0E23,2.0E23,4.9E-324,1.7976931348623157E308]",
+                generate(0.0, -0.0, 1.0, 100.0, 0.001, 0.0001, 1234567.0, 1e7, 4.35,
+                        1e23, 2e23, Double.MIN_VALUE, Double.MAX_VALUE));
+
+        Random r = new Random(1);
+        for(int i=0; i < 10000; i++) {
+            double num = i % 2 == 0
+                    ? Double.longBitsToDouble(r.nextLong())
+                    : r.nextDouble() * Math.pow(10, r.nextInt(20) - 10);
+            if (Double.isNaN(num) || Double.isInfinite(num)) {
+                continue;
+            }
+            String text = generate(num);
+            text = text.substring(1, text.length() - 1);
+            assertEquals(text, num, Double.parseDouble(text));
+            assertTrue(text, text.length() <= Double.toString(num).length());
+        }
+    }
+
+    private static String generate(double... nums) {
+        StringWriter sw = new StringWriter();
+        JsonGenerator generator = Json.createGenerator(sw).writeStartArray();
+        for(double num : nums) {
+            generator.write(num);
+        }
+        generator.writeEnd().close();
+        return sw.toString();
+    }
+
+    public void testBigNumberGenerator() throws Exception {
+        String[] nums = { "0", "-12", "1.25", "-0.001", "0.00000012", "1E-10",
+                "1.0E+3", "12345678901234567890", "-9223372036854775808",
+                "123456789012345678.9", "0.00" };
+        StringBuilder expected = new StringBuilder();
+        StringWriter sw = new StringWriter();
+        JsonGenerator generator = Json.createGenerator(sw).writeStartArray();
+        for(String num : nums) {
+            BigDecimal bd = new BigDecimal(num);
+            generator.write(bd);
+            generator.write(bd.toBigInteger());
+            expected.append(bd).append(',').append(bd.toBigInteger()).append(',');
+        }
+        generator.writeEnd().close();
+        expected.setLength(expected.length() - 1);
+        assertEquals("[" + expected + "]", sw.toString());
+    }
+
+    public void testJsonNumberGenerator() throws Exception {
+        String json = "[0,-7,2147483648,-9223372036854775808,1.25,-0.5,0.000001,"
+                + "0.0000001,1e-10,1.5E+3,12.500,3.141592653589793,1e400]";
+        JsonArray array;
+        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+            array = reader.readArray();
+        }
+        StringBuilder expected = new StringBuilder();
+        for(JsonValue value : array) {
+            expected.append(expected.length() == 0 ? "" : ",").append(value);
+        }
+        StringWriter sw = new StringWriter();
+        try (JsonWriter writer = Json.createWriter(sw)) {
+            writer.writeArray(array);
+        }
+        assertEquals("[" + expected + "]", sw.toString());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (JsonGenerator generator = Json.createGenerator(baos)) {
+            generator.writeStartObject().write("a", array).writeEnd();
+        }
+        assertEquals("{\"a\":[" + expected + "]}", baos.toString("UTF-8"));
+    }
+
     public void testGeneratorBuf() throws Exception {
         JsonGeneratorFactory gf = Json.createGeneratorFactory(null);
         JsonReaderFactory rf = Json.createReaderFactory(null);
@@ -506,6 +608,120 @@ public class JsonGeneratorTest extends TestCase {
         assertEquals(expected, got);
     }
 
+    public void testEscapedText() throws Exception {
+        String str = "a\"b\\c\u0000\u001f\b\f\n\r\t/\u00e9\u20ac\ud83d\ude00 \u007f end";
+        String text = "\"a\\\"b\\\\c\\u0000\\u001f\\b\\f\\n\\r\\t/\u00e9\u20ac\ud83d\ude00 \u007f end\"";
+        String expected = "{" + text + ":[" + text + "," + text + "]}";
+        for(int size=6; size < 60; size++) {
+            final JsonParserTest.MyBufferPool bufferPool = new JsonParserTest.MyBufferPool(size);
+            Map<String, Object> config = new HashMap<String, Object>() {{
+                put(BufferPool.class.getName(), bufferPool);
+            }};
+            JsonGeneratorFactory gf = Json.createGeneratorFactory(config);
+
+            StringWriter sw = new StringWriter();
+            gf.createGenerator(sw).writeStartObject().writeStartArray(str)
+                    .write(str).write(str).writeEnd().writeEnd().close();
+            assertEquals("Fails for size="+size, expected, sw.toString());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            gf.createGenerator(baos).writeStartObject().writeStartArray(str)
+                    .write(str).write(str).writeEnd().writeEnd().close();
+            assertEquals("Fails for size="+size, expected, baos.toString("UTF-8"));
+        }
+        JsonString value = Json.createArrayBuilder().add(str).build().getJsonString(0);
+        assertEquals(text, value.toString());
+    }
+
+    public void testPreparedNames() throws Exception {
+        JsonProviderImpl provider = new JsonProviderImpl();
+        String[] names = { "id", "na\"me\n", "\u00e9l\u00e9ment\ud83d\ude00", "list", "obj",
+                "n", "d", "bi", "bd", "t", "nul", "v" };
+        JsonPreparedName[] prepared = new JsonPreparedName[names.length];
+        for(int i=0; i < names.length; i++) {
+            prepared[i] = provider.createPreparedName(names[i]);
+            assertEquals(names[i], prepared[i].getName());
+        }
+        JsonObject value = Json.createObjectBuilder().add("a", 1).add("b", "c").build();
+        for(int size=12; size < 40; size++) {
+            for(boolean pretty : new boolean[] {false, true}) {
+                final JsonParserTest.MyBufferPool bufferPool = new JsonParserTest.MyBufferPool(size);
+                Map<String, Object> config = new HashMap<>();
+                config.put(BufferPool.class.getName(), bufferPool);
+                if (pretty) {
+                    config.put(JsonGenerator.PRETTY_PRINTING, true);
+                }
+                JsonGeneratorFactory gf = Json.createGeneratorFactory(config);
+
+                StringWriter expected = new StringWriter();
+                JsonGenerator generator = gf.createGenerator(expected).writeStartObject()
+                        .write(names[0], 1).write(names[1], "x").write(names[2], true);
+                generator.writeStartArray(names[3]).write(1).writeEnd();
+                generator.writeStartObject(names[4]).write(names[0], 2).writeEnd();
+                generator.write(names[5], Long.MAX_VALUE).write(names[6], 1.5)
+                        .write(names[7], BigInteger.TEN).write(names[8], new BigDecimal("0.25"))
+                        .write(names[9], false).writeNull(names[10]).write(names[11], value)
+                        .writeEnd().close();
+
+                StringWriter sw = new StringWriter();
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                for(JsonGenerator g : new JsonGenerator[] {
+                        gf.createGenerator(sw), gf.createGenerator(baos) }) {
+                    JsonPreparedGenerator pg = (JsonPreparedGenerator)g;
+                    pg.writeStartObject();
+                    pg.write(prepared[0], 1).write(prepared[1], "x").write(prepared[2], true);
+                    pg.writeStartArray(prepared[3]).write(1).writeEnd();
+                    pg.writeStartObject(prepared[4]).write(prepared[0], 2).writeEnd();
+                    pg.write(prepared[5], Long.MAX_VALUE).write(prepared[6], 1.5)
+                            .write(prepared[7], BigInteger.TEN)
+                            .write(prepared[8], new BigDecimal("0.25"))
+                            .write(prepared[9], false).writeNull(prepared[10])
+                            .write(prepared[11], value);
+                    pg.writeEnd().close();
+                }
+                String msg = "Fails for size="+size+" pretty="+pretty;
+                assertEquals(msg, expected.toString(), sw.toString());
+                assertEquals(msg, expected.toString(), baos.toString("UTF-8"));
+            }
+        }
+    }
+
+    public void testPreparedNameNullNumbers() throws Exception {
+        JsonProviderImpl provider = new JsonProviderImpl();
+        JsonPreparedName a = provider.createPreparedName("a");
+        JsonPreparedName b = provider.createPreparedName("b");
+        StringWriter sw = new StringWriter();
+        JsonPreparedGenerator generator = (JsonPreparedGenerator)Json.createGenerator(sw);
+        generator.writeStartObject();
+        generator.write(a, (BigInteger)null).write(b, (BigDecimal)null);
+        generator.writeEnd().close();
+
+        StringWriter expected = new StringWriter();
+        Json.createGenerator(expected).writeStartObject()
+                .write("a", (BigInteger)null).write("b", (BigDecimal)null)
+                .writeEnd().close();
+        assertEquals("{\"a\":null,\"b\":null}", sw.toString());
+        assertEquals(expected.toString(), sw.toString());
+    }
+
+    public void testPreparedNameContext() throws Exception {
+        JsonPreparedName name = new JsonProviderImpl().createPreparedName("a");
+        JsonPreparedGenerator generator = (JsonPreparedGenerator)Json.createGenerator(new StringWriter());
+        try {
+            generator.write(name, 1);
+            fail("Expected JsonGenerationException when not in an object context");
+        } catch (JsonGenerationException expected) {
+            // pass
+        }
+        generator.writeStartArray();
+        try {
+            generator.writeStartObject(name);
+            fail("Expected JsonGenerationException when not in an object context");
+        } catch (JsonGenerationException expected) {
+            // pass
+        }
+    }
+
     public void testFlush() throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         JsonGenerator gen = Json.createGenerator(baos);
@@ -515,4 +731,65 @@ public class JsonGeneratorTest extends TestCase {
         assertEquals("{}", baos.toString("UTF-8"));
     }
 
+    public void testUTF8Stream() throws Exception {
+        utf8String("abc");
+        utf8String("\u00e9t\u00e9 \u20ac \ud83d\ude00");
+        utf8String("\u0000\u001f\"\\\u00ff\u07ff\u0800\uffff");
+        StringBuilder sb = new StringBuilder();
+        for(int i=0; i < 10000; i++) {
+            sb.append((char)('a'+i%26)).append('\u0416');
+        }
+        utf8String(sb.toString());
+    }
+
+    void utf8String(String str) throws Exception {
+        StringWriter sw = new StringWriter();
+        JsonGenerator generator = Json.createGenerator(sw);
+        generator.writeStartArray().write(str).write(Integer.MIN_VALUE).write(12345).writeEnd();
+        generator.close();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        generator = Json.createGenerator(baos);
+        generator.writeStartArray().write(str).write(Integer.MIN_VALUE).write(12345).writeEnd();
+        generator.close();
+
+        assertEquals(sw.toString(), baos.toString("UTF-8"));
+    }
+
+    public void testUTF8UnpairedSurrogate() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonGenerator generator = Json.createGenerator(baos);
+        generator.writeStartArray().write("a\ud83db").write("\ude00").writeEnd();
+        generator.close();
+
+        assertEquals("[\"a?b\",\"?\"]", baos.toString("UTF-8"));
+    }
+
+    public void testBufferSizesUTF8() throws Exception {
+        JsonObject expected = Json.createObjectBuilder()
+                .add("\u00e9l\u00e9ment", "\u20ac\ud83d\ude00 \n")
+                .add("num", Integer.MIN_VALUE)
+                .add("array", Json.createArrayBuilder().add(true).add(1.5).addNull())
+                .build();
+        for(int size=12; size < 100; size++) {
+            final JsonParserTest.MyBufferPool bufferPool = new JsonParserTest.MyBufferPool(size);
+            Map<String, Object> config = new HashMap<String, Object>() {{
+                put(BufferPool.class.getName(), bufferPool);
+                put(JsonGenerator.PRETTY_PRINTING, true);
+            }};
+            JsonGeneratorFactory gf = Json.createGeneratorFactory(config);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            JsonGenerator generator = gf.createGenerator(baos);
+            generator.writeStartObject();
+            for(Map.Entry<String, JsonValue> e : expected.entrySet()) {
+                generator.write(e.getKey(), e.getValue());
+            }
+            generator.writeEnd().close();
+
+            JsonReader reader = Json.createReader(new StringReader(baos.toString("UTF-8")));
+            assertEquals("Fails for size="+size, expected, reader.readObject());
+            reader.close();
+        }
+    }
+
 }
@@ -0,0 +1,124 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.tests;
+
+import junit.framework.TestCase;
+
+import javax.json.*;
+import java.io.StringReader;
+
+/**
+ * JsonMergePatch tests, mostly the examples of RFC 7386
+ */
+public class JsonMergePatchTest extends TestCase {
+
+    private static final String[][] EXAMPLES = {
+        // target, patch, result
+        { "{\"a\":\"b\"}", "{\"a\":\"c\"}", "{\"a\":\"c\"}" },
+        { "{\"a\":\"b\"}", "{\"b\":\"c\"}", "{\"a\":\"b\",\"b\":\"c\"}" },
+        { "{\"a\":\"b\"}", "{\"a\":null}", "{}" },
+        { "{\"a\":\"b\",\"b\":\"c\"}", "{\"a\":null}", "{\"b\":\"c\"}" },
+        { "{\"a\":[\"b\"]}", "{\"a\":\"c\"}", "{\"a\":\"c\"}" },
+        { "{\"a\":\"c\"}", "{\"a\":[\"b\"]}", "{\"a\":[\"b\"]}" },
+        { "{\"a\":{\"b\":\"c\"}}", "{\"a\":{\"b\":\"d\",\"c\":null}}", "{\"a\":{\"b\":\"d\"}}" },
+        { "{\"a\":[{\"b\":\"c\"}]}", "{\"a\":[1]}", "{\"a\":[1]}" },
+        { "[\"a\",\"b\"]", "[\"c\",\"d\"]", "[\"c\",\"d\"]" },
+        { "{\"a\":\"b\"}", "[\"c\"]", "[\"c\"]" },
+        { "{\"a\":\"foo\"}", "null", "null" },
+        { "{\"a\":\"foo\"}", "\"bar\"", "\"bar\"" },
+        { "{\"e\":null}", "{\"a\":1}", "{\"e\":null,\"a\":1}" },
+        { "[1,2]", "{\"a\":\"b\",\"c\":null}", "{\"a\":\"b\"}" },
+        { "{}", "{\"a\":{\"bb\":{\"ccc\":null}}}", "{\"a\":{\"bb\":{}}}" },
+        { "{\"a\":1}", "{\"a\":{}}", "{\"a\":{}}" },
+        { "{\"a\":{\"b\":1}}", "{\"a\":{}}", "{\"a\":{\"b\":1}}" },
+        { "[1]", "{}", "{}" },
+        { "\"a\"", "{}", "{}" },
+        { "{\"a\":1}", "{}", "{\"a\":1}" },
+    };
+
+    public void testApply() {
+        for (String[] example : EXAMPLES) {
+            JsonValue result = new JsonMergePatch(read(example[1])).apply(read(example[0]));
+            assertEquals(example[1], read(example[2]), result);
+        }
+    }
+
+    public void testDiff() {
+        String[][] examples = {
+            { "{\"a\":1,\"b\":{\"c\":[1,2],\"d\":\"x\"},\"e\":true}",
+              "{\"a\":1,\"b\":{\"c\":[1,3],\"d\":\"x\"},\"f\":false}",
+              "{\"b\":{\"c\":[1,3]},\"e\":null,\"f\":false}" },
+            { "{\"a\":1}", "{\"a\":1}", "{}" },
+            { "{\"a\":{\"b\":1}}", "[1]", "[1]" },
+            { "{\"a\":1}", "{\"a\":{}}", "{\"a\":{}}" },
+            { "1", "{}", "{}" },
+            { "[1]", "[1]", "[1]" },
+            { "{}", "{}", "{}" },
+        };
+        for (String[] example : examples) {
+            JsonValue source = read(example[0]);
+            JsonValue target = read(example[1]);
+            JsonMergePatch patch = JsonMergePatch.diff(source, target);
+            assertEquals(read(example[2]), patch.toJsonValue());
+            assertEquals(target, patch.apply(source));
+        }
+    }
+
+    public void testDiffSharedValues() {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add("key" + i, Json.createObjectBuilder().add("value", i));
+        }
+        JsonObject source = builder.build();
+        JsonObject target = new JsonPointer("/key500/value").replace(source,
+                Json.createArrayBuilder().add(-1).build().get(0));
+        JsonMergePatch patch = JsonMergePatch.diff(source, target);
+        assertEquals(read("{\"key500\":{\"value\":-1}}"), patch.toJsonValue());
+        assertEquals(target, patch.apply(source));
+    }
+
+    private static JsonValue read(String json) {
+        try (JsonReader reader = Json.createReader(new StringReader("[" + json + "]"))) {
+            return reader.readArray().get(0);
+        }
+    }
+
+}
@@ -47,6 +47,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Random;
 
 /**
  * @author Jitendra Kotamraju
@@ -230,5 +231,85 @@ public class JsonNumberTest extends TestCase {
         }
     }
 
+    public void testReadNumbersAsBigDecimal() throws Exception {
+        String[] numbers = { "0", "-9223372036854775808", "9223372036854775807",
+                "-9223372036854775809", "9223372036854775808", "9999999999999999999",
+                "1.50", "-0.0", "0.1", "-0.0010", "123456789.012345", "1234567890.123456",
+                "0.0000000000000000000001", "0.00000000000000000000001", "1e3", "1.5E-3" };
+        StringBuilder sb = new StringBuilder("[");
+        for (String number : numbers) {
+            sb.append(sb.length() == 1 ? "" : ",").append(number);
+        }
+        JsonReader reader = Json.createReader(new StringReader(sb.append("]").toString()));
+        JsonArray array = reader.readArray();
+        reader.close();
+        for (int i = 0; i < numbers.length; i++) {
+            BigDecimal expected = new BigDecimal(numbers[i]);
+            JsonNumber number = array.getJsonNumber(i);
+            assertEquals(numbers[i], expected, number.bigDecimalValue());
+            assertEquals(numbers[i], expected.toString(), number.toString());
+            assertEquals(numbers[i], expected.hashCode(), number.hashCode());
+            assertEquals(numbers[i], expected.longValue(), number.longValue());
+            assertEquals(numbers[i], expected.intValue(), number.intValue());
+            assertEquals(numbers[i], expected.doubleValue(), number.doubleValue());
+            assertEquals(numbers[i], expected.scale() == 0, number.isIntegral());
+            assertEquals(numbers[i], Json.createArrayBuilder().add(expected).build().get(0), number);
+        }
+    }
+
+    public void testHashCodeEquals() throws Exception {
+        String[] numbers = { "0", "-0", "1", "-1", "2147483647", "-2147483648", "4294967296",
+                "9223372036854775807", "-9223372036854775808", "0.0", "-0.0", "1.5", "1.50",
+                "-123.456", "0.000001", "99999999999999.9", "123456789012345678901234567890" };
+        JsonArray read = Json.createReader(new StringReader(
+                "[" + String.join(",", numbers) + "]")).readArray();
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (String number : numbers) {
+            builder.add(new BigDecimal(number));
+        }
+        JsonArray built = builder.build();
+        for (int i = 0; i < numbers.length; i++) {
+            BigDecimal expected = new BigDecimal(numbers[i]);
+            JsonNumber number = read.getJsonNumber(i);
+            assertEquals(numbers[i], expected.hashCode(), number.hashCode());
+            assertEquals(numbers[i], built.get(i), number);
+            assertEquals(numbers[i], number, built.get(i));
+            for (int j = 0; j < numbers.length; j++) {
+                assertEquals(numbers[i] + " " + numbers[j], expected.equals(new BigDecimal(numbers[j])),
+                        number.equals(read.get(j)));
+            }
+        }
+        assertEquals(built, read);
+        assertEquals(built.hashCode(), read.hashCode());
+
+        // arrays backed by primitive arrays
+        String[] arrays = { "[1, 2, -3]", "[1, 12345678901]", "[1.5, 2, -0.0]", "[0.0, 2]" };
+        for (String array : arrays) {
+            JsonArray numberArray = Json.createReader(new StringReader(array)).readArray();
+            JsonArrayBuilder copy = Json.createArrayBuilder();
+            for (JsonValue value : numberArray) {
+                copy.add(((JsonNumber) value).bigDecimalValue());
+            }
+            JsonArray bigDecimalArray = copy.build();
+            assertEquals(array, bigDecimalArray, numberArray);
+            assertEquals(array, bigDecimalArray.hashCode(), numberArray.hashCode());
+            assertEquals(array, numberArray, Json.createReader(new StringReader(array)).readArray());
+        }
+        assertFalse(Json.createReader(new StringReader("[1.5]")).readArray().equals(
+                Json.createReader(new StringReader("[1.50]")).readArray()));
+    }
+
+    public void testReadDecimalFractions() throws Exception {
+        Random r = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            BigDecimal expected = BigDecimal.valueOf(r.nextLong() % 1000000000000000L, r.nextInt(23));
+            String json = "[" + expected.toPlainString() + "]";
+            JsonReader reader = Json.createReader(new StringReader(json));
+            JsonNumber number = reader.readArray().getJsonNumber(0);
+            reader.close();
+            assertEquals(json, new BigDecimal(expected.toPlainString()), number.bigDecimalValue());
+            assertEquals(json, expected.doubleValue(), number.doubleValue());
+        }
+    }
 
 }
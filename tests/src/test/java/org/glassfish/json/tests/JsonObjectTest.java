@@ -43,6 +43,13 @@ package org.glassfish.json.tests;
 import junit.framework.TestCase;
 
 import javax.json.*;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * @author Jitendra Kotamraju
@@ -146,4 +153,85 @@ public class JsonObjectTest extends TestCase {
         }
     }
 
+    public void testMapContract() {
+        for (int size : new int[] { 0, 1, 8, 9, 100 }) {
+            Map<String, JsonValue> expected = new LinkedHashMap<>();
+            JsonObjectBuilder builder = Json.createObjectBuilder();
+            for (int i = 0; i < size; i++) {
+                expected.put("name" + i, Json.createArrayBuilder().add(i).build().get(0));
+                builder.add("name" + i, i);
+            }
+            JsonObject built = builder.build();
+            JsonObject read = Json.createReader(new StringReader(built.toString())).readObject();
+            for (JsonObject object : new JsonObject[] { built, read }) {
+                assertEquals(expected, object);
+                assertEquals(object, expected);
+                assertEquals(expected.hashCode(), object.hashCode());
+                assertEquals(size, object.size());
+                assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(object.keySet()));
+                for (int i = 0; i < size; i++) {
+                    assertEquals(i, object.getInt("name" + i));
+                    assertTrue(object.containsKey("name" + i));
+                }
+                assertNull(object.get("name" + size));
+                assertNull(object.get(null));
+                assertFalse(object.containsKey(1));
+                try {
+                    object.put("x", JsonValue.NULL);
+                    fail("JsonObject should be immutable");
+                } catch (UnsupportedOperationException expectedException) {
+                    // no-op
+                }
+            }
+        }
+    }
+
+    public void testHashCodeEquals() {
+        String json = "{\"a\": [1, 2.50, -0.0, 12345678901, {\"b\": null}], \"c\": {\"d\": [0.0, 9]},"
+                + " \"e\": 1.0, \"f\": -9223372036854775808}";
+        JsonObject read = Json.createReader(new StringReader(json)).readObject();
+        JsonObject copy = Json.createReader(new StringReader(read.toString())).readObject();
+        JsonObject built = Json.createObjectBuilder()
+                .add("a", Json.createArrayBuilder().add(1).add(new BigDecimal("2.50"))
+                        .add(new BigDecimal("-0.0")).add(12345678901L)
+                        .add(Json.createObjectBuilder().addNull("b")))
+                .add("c", Json.createObjectBuilder().add("d",
+                        Json.createArrayBuilder().add(new BigDecimal("0.0")).add(9)))
+                .add("e", new BigDecimal("1.0"))
+                .add("f", Long.MIN_VALUE)
+                .build();
+        Map<String, JsonValue> map = new HashMap<>(read);
+        for (JsonObject object : new JsonObject[] { copy, built }) {
+            assertEquals(read, object);
+            assertEquals(object, read);
+            assertEquals(read.hashCode(), object.hashCode());
+            assertEquals(map.hashCode(), object.hashCode());
+            assertEquals(object, map);
+        }
+        // cached hash codes of the different objects
+        JsonObject other = Json.createReader(new StringReader(json.replace("9]", "8]"))).readObject();
+        assertFalse(read.equals(other));
+        assertFalse(read.getJsonArray("a").equals(
+                Json.createReader(new StringReader("[1, 2.5, -0.0, 12345678901, {\"b\": null}]")).readArray()));
+        assertEquals(read.hashCode(), read.hashCode());
+    }
+
+    public void testDuplicateNames() {
+        StringBuilder sb = new StringBuilder("{\"a\":1");
+        for (int i = 0; i < 20; i++) {
+            sb.append(",\"n").append(i).append("\":").append(i);
+        }
+        sb.append(",\"a\":2,\"n5\":true}");
+        JsonObject object = Json.createReader(new StringReader(sb.toString())).readObject();
+        assertEquals(21, object.size());
+        assertEquals(2, object.getInt("a"));
+        assertTrue(object.getBoolean("n5"));
+        assertEquals("a", object.keySet().iterator().next());
+
+        object = Json.createReader(new StringReader("{\"a\":1,\"b\":2,\"a\":3}")).readObject();
+        assertEquals(2, object.size());
+        assertEquals(3, object.getInt("a"));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(object.keySet()));
+    }
+
 }
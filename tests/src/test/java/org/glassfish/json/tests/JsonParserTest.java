@@ -43,20 +43,28 @@ package org.glassfish.json.tests;
 import junit.framework.TestCase;
 
 import javax.json.*;
+import javax.json.stream.JsonCollectors;
 import javax.json.stream.JsonLocation;
 import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParser.Event;
 import javax.json.stream.JsonParserFactory;
+import javax.json.stream.JsonParsingException;
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
 
+import org.glassfish.json.JsonParserImpl;
+import org.glassfish.json.JsonProviderImpl;
 import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonConfig;
+import org.glassfish.json.api.JsonFeedParser;
 
 /**
  * JsonParser Tests
@@ -602,9 +610,11 @@ public class JsonParserTest extends TestCase {
         private boolean takeCalled;
         private boolean recycleCalled;
         private final char[] buf;
+        private final byte[] bytes;
 
         MyBufferPool(int size) {
             buf = new char[size];
+            bytes = new byte[size];
         }
 
         @Override
@@ -618,6 +628,11 @@ public class JsonParserTest extends TestCase {
             recycleCalled = true;
         }
 
+        @Override
+        public byte[] takeBytes() {
+            return bytes;
+        }
+
         boolean isTakeCalled() {
             return takeCalled;
         }
@@ -766,4 +781,638 @@ public class JsonParserTest extends TestCase {
         }
     }
 
+    public void testStringUsingBuffersUTF8() throws Throwable {
+        for(int size=20; size < 200; size++) {
+            final MyBufferPool bufferPool = new MyBufferPool(size);
+            Map<String, Object> config = new HashMap<String, Object>() {{
+                put(BufferPool.class.getName(), bufferPool);
+            }};
+            JsonParserFactory factory = Json.createParserFactory(config);
+
+            StringBuilder sb = new StringBuilder();
+            for(int i=0; i < 300; i++) {
+                // 1, 2, 3 and 4 byte sequences
+                sb.append(new String[] {"a", "\u00e9", "\u20ac", "\ud83d\ude00"}[i%4]);
+                String name = sb.toString();
+                String str = "{\""+name+"\":\""+name+"\"}";
+                JsonLocation location;
+                try {
+                    JsonParser parser = factory.createParser(
+                            new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8)));
+                    parser.next();
+                    parser.next();
+                    assertEquals("name fails for buffer size="+size+" name length="+i, name, parser.getString());
+                    location = parser.getLocation();
+                    assertEquals("Stream offset fails for buffer size="+size+" name length="+i,
+                            name.length()+3, location.getStreamOffset());
+                    assertEquals("Column value fails for buffer size="+size+" name length="+i,
+                            name.length()+4, location.getColumnNumber());
+
+                    parser.next();
+                    assertEquals("value fails for buffer size="+size+" name length="+i, name, parser.getString());
+                    location = parser.getLocation();
+                    assertEquals("Stream offset fails for buffer size="+size+" name length="+i,
+                            2*name.length()+6, location.getStreamOffset());
+                    parser.close();
+                } catch (Throwable e) {
+                    throw new Throwable("Failed for buffer size="+size+" name length="+i, e);
+                }
+            }
+        }
+    }
+
+    public void testNumbersUsingBuffersUTF8() throws Throwable {
+        Random r = new Random(System.currentTimeMillis());
+        for(int size=20; size < 100; size++) {
+            final MyBufferPool bufferPool = new MyBufferPool(size);
+            Map<String, Object> config = new HashMap<String, Object>() {{
+                put(BufferPool.class.getName(), bufferPool);
+            }};
+            JsonParserFactory factory = Json.createParserFactory(config);
+            for(int i=0; i < 100; i++) {
+                long num = r.nextLong();
+                String str = "[\""+i+"\", "+num+", -"+i+".5e-3 ]";
+                JsonParser parser = factory.createParser(
+                        new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8)));
+                parser.next();
+                parser.next();
+                assertEquals("Fails for "+str, ""+i, parser.getString());
+                parser.next();
+                assertEquals("Fails for "+str, num, parser.getLong());
+                parser.next();
+                assertEquals("Fails for "+str, new BigDecimal("-"+i+".5e-3"), parser.getBigDecimal());
+                assertEquals("Fails for "+str, Event.END_ARRAY, parser.next());
+                parser.close();
+            }
+        }
+    }
+
+    public void testWikiInputStreamUTF8Charset() throws Exception {
+        JsonParser parser = Json.createParserFactory(null)
+                .createParser(wikiStream(), StandardCharsets.UTF_8);
+        testWiki(parser);
+        parser.close();
+    }
+
+    public void testMalformedUTF8() {
+        byte[] bytes = { '[', '"', 'a', (byte)0xc3, '"', ',', '"', (byte)0xff, 'b', '"', ']' };
+        JsonParser parser = Json.createParser(new ByteArrayInputStream(bytes));
+        parser.next();
+        parser.next();
+        assertEquals("a\ufffd", parser.getString());
+        parser.next();
+        assertEquals("\ufffdb", parser.getString());
+        assertEquals(Event.END_ARRAY, parser.next());
+        parser.close();
+    }
+
+    public void testGetObjectReader() throws Exception {
+        JsonParser parser = Json.createParser(wikiReader());
+        testGetObject(parser);
+        parser.close();
+    }
+
+    public void testGetObjectStream() throws Exception {
+        JsonParser parser = Json.createParser(wikiStream());
+        testGetObject(parser);
+        parser.close();
+    }
+
+    public void testGetObjectStructure() throws Exception {
+        JsonParser parser = Json.createParserFactory(null).createParser(
+                JsonBuilderTest.buildPerson());
+        testGetObject(parser);
+        parser.close();
+    }
+
+    static void testGetObject(JsonParser parser) {
+        JsonObject person = JsonBuilderTest.buildPerson();
+        assertEquals(Event.START_OBJECT, parser.next());
+        testObjectStringValue(parser, "firstName", "John");
+        testObjectStringValue(parser, "lastName", "Smith");
+
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("age", ((JsonString)parser.getValue()).getString());
+        assertEquals(Event.VALUE_NUMBER, parser.next());
+        assertEquals(person.get("age"), parser.getValue());
+
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(person.getJsonObject("address"), parser.getObject());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("phoneNumber", parser.getString());
+
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(person.getJsonArray("phoneNumber").get(0), parser.getValue());
+        assertEquals(Event.START_OBJECT, parser.next());
+        testObjectStringValue(parser, "type", "fax");
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals(Event.VALUE_STRING, parser.next());
+        assertEquals("646 555-4567", ((JsonString)parser.getValue()).getString());
+        assertEquals(Event.END_OBJECT, parser.next());
+        assertEquals(Event.END_ARRAY, parser.next());
+        assertEquals(Event.END_OBJECT, parser.next());
+        assertFalse(parser.hasNext());
+    }
+
+    public void testGetArray() {
+        JsonParser parser = Json.createParser(new StringReader(
+                "{\"a\":[1, 2.5, \"x\", true, false, null, [], {}], \"b\":[[]]}"));
+        parser.next();
+        parser.next();
+        assertEquals(Event.START_ARRAY, parser.next());
+        JsonArray array = parser.getArray();
+        assertEquals(Json.createArrayBuilder().add(1).add(2.5).add("x").add(true).add(false)
+                .addNull().add(Json.createArrayBuilder()).add(Json.createObjectBuilder()).build(),
+                array);
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("b", parser.getString());
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertTrue(parser.getArray().isEmpty());
+        assertEquals(Event.END_ARRAY, parser.next());
+        assertEquals(Event.END_OBJECT, parser.next());
+        parser.close();
+    }
+
+    public void testGetValueRoot() {
+        JsonParser parser = Json.createParser(new StringReader("[1, {\"a\":\"b\"}]"));
+        parser.next();
+        JsonValue value = parser.getValue();
+        assertEquals(Json.createArrayBuilder().add(1)
+                .add(Json.createObjectBuilder().add("a", "b")).build(), value);
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void testGetObjectIllegalState() {
+        JsonParser parser = Json.createParser(new StringReader("[1]"));
+        try {
+            parser.getValue();
+            fail("getValue() should fail before next()");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.next();
+        try {
+            parser.getObject();
+            fail("getObject() should fail in START_ARRAY");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.next();
+        try {
+            parser.getArray();
+            fail("getArray() should fail in VALUE_NUMBER");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.next();
+        try {
+            parser.getValue();
+            fail("getValue() should fail in END_ARRAY");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.close();
+    }
+
+    private static final String SKIP_JSON =
+            "{\"a\":[1, \"]\\\"[{\", {\"b\":[[], {}]}, \"\\u00e9\u20ac\"],\n" +
+            " \"c\":{\"d\":\"}\", \"e\":[true]},\n \"f\":\"g\"}";
+
+    public void testSkipReader() {
+        JsonParser parser = Json.createParser(new StringReader(SKIP_JSON));
+        testSkip(parser);
+        parser.close();
+    }
+
+    public void testSkipStream() {
+        JsonParser parser = Json.createParser(
+                new ByteArrayInputStream(SKIP_JSON.getBytes(StandardCharsets.UTF_8)));
+        testSkip(parser);
+        parser.close();
+    }
+
+    public void testSkipStructure() {
+        JsonObject object = Json.createReader(new StringReader(SKIP_JSON)).readObject();
+        JsonParser parser = Json.createParserFactory(null).createParser(object);
+        testSkip(parser);
+        parser.close();
+    }
+
+    static void testSkip(JsonParser parser) {
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertEquals(Event.VALUE_NUMBER, parser.next());
+        parser.skipObject();            // not in object context
+        parser.skipArray();
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("c", parser.getString());
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(Event.KEY_NAME, parser.next());
+        parser.skipObject();
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("f", parser.getString());
+        assertEquals(Event.VALUE_STRING, parser.next());
+        assertEquals("g", parser.getString());
+        parser.skipObject();
+        assertFalse(parser.hasNext());
+    }
+
+    public void testSkipLocation() {
+        JsonParser parser = Json.createParser(new StringReader(SKIP_JSON));
+        parser.next();
+        parser.skipObject();
+        JsonLocation location = parser.getLocation();
+        assertEquals(3, location.getLineNumber());
+        assertEquals(SKIP_JSON.length(), location.getStreamOffset());
+        parser.close();
+
+        parser = Json.createParser(
+                new ByteArrayInputStream(SKIP_JSON.getBytes(StandardCharsets.UTF_8)));
+        parser.next();
+        parser.skipObject();
+        location = parser.getLocation();
+        assertEquals(3, location.getLineNumber());
+        assertEquals(SKIP_JSON.length(), location.getStreamOffset());
+        parser.close();
+    }
+
+    public void testSkipUsingBuffers() {
+        for(int size=20; size < 100; size++) {
+            final MyBufferPool bufferPool = new MyBufferPool(size);
+            Map<String, Object> config = new HashMap<String, Object>() {{
+                put(BufferPool.class.getName(), bufferPool);
+            }};
+            JsonParserFactory factory = Json.createParserFactory(config);
+            JsonParser parser = factory.createParser(new StringReader(SKIP_JSON));
+            testSkip(parser);
+            parser.close();
+            parser = factory.createParser(
+                    new ByteArrayInputStream(SKIP_JSON.getBytes(StandardCharsets.UTF_8)));
+            testSkip(parser);
+            parser.close();
+        }
+    }
+
+    public void testSkipMismatchedBracket() {
+        JsonParser parser = Json.createParser(new StringReader("[{\"a\":[1}]]"));
+        parser.next();
+        try {
+            parser.skipArray();
+            fail("skipArray() should fail for mismatched brackets");
+        } catch (JsonParsingException expected) {
+            // no-op
+        }
+        parser.close();
+
+        parser = Json.createParser(new StringReader("{\"a\":\"b}"));
+        parser.next();
+        try {
+            parser.skipObject();
+            fail("skipObject() should fail for unterminated string");
+        } catch (JsonParsingException expected) {
+            // no-op
+        }
+        parser.close();
+    }
+
+    private static final String STREAM_JSON =
+            "[{\"id\":1, \"tags\":[\"a\"]}, 2, \"three\", [4], null, {\"id\":6}]";
+
+    public void testArrayStreamReader() {
+        testArrayStream(Json.createParser(new StringReader(STREAM_JSON)));
+    }
+
+    public void testArrayStreamStream() {
+        testArrayStream(Json.createParser(
+                new ByteArrayInputStream(STREAM_JSON.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    public void testArrayStreamStructure() {
+        JsonArray array = Json.createReader(new StringReader(STREAM_JSON)).readArray();
+        testArrayStream(Json.createParserFactory(null).createParser(array));
+    }
+
+    static void testArrayStream(JsonParser parser) {
+        JsonArray expected = Json.createReader(new StringReader(STREAM_JSON)).readArray();
+        assertEquals(Event.START_ARRAY, parser.next());
+        JsonArray got = parser.getArrayStream().collect(JsonCollectors.toJsonArray());
+        assertEquals(expected, got);
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void testArrayStreamPartial() {
+        JsonParser parser = Json.createParser(new StringReader("{\"a\":" + STREAM_JSON + ", \"b\":true}"));
+        parser.next();
+        parser.next();
+        assertEquals(Event.START_ARRAY, parser.next());
+        long ids = parser.getArrayStream()
+                .filter(v -> v.getValueType() == JsonValue.ValueType.OBJECT)
+                .limit(1)
+                .count();
+        assertEquals(1, ids);
+        parser.skipArray();
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("b", parser.getString());
+        assertEquals(Event.VALUE_TRUE, parser.next());
+        parser.close();
+    }
+
+    public void testObjectStream() {
+        JsonParser parser = Json.createParser(new StringReader(
+                "{\"a\":1, \"b\":[2], \"c\":{\"d\":\"e\"}}"));
+        assertEquals(Event.START_OBJECT, parser.next());
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        parser.getObjectStream().forEach(e -> builder.add(e.getKey(), e.getValue()));
+        assertEquals(Json.createObjectBuilder().add("a", 1)
+                .add("b", Json.createArrayBuilder().add(2))
+                .add("c", Json.createObjectBuilder().add("d", "e")).build(), builder.build());
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void testArrayStreamIllegalState() {
+        JsonParser parser = Json.createParser(new StringReader("{}"));
+        parser.next();
+        try {
+            parser.getArrayStream();
+            fail("getArrayStream() should fail in START_OBJECT");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.close();
+    }
+
+    public void testMultipleDocuments() {
+        JsonParserFactory factory = Json.createParserFactory(
+                Collections.singletonMap(JsonConfig.MULTIPLE_DOCUMENTS, true));
+        assertEquals(Collections.singletonMap(JsonConfig.MULTIPLE_DOCUMENTS, true),
+                factory.getConfigInUse());
+        String json = "{\"a\":1}\n[true]\n\n{}[]";
+        JsonParser reader = factory.createParser(new StringReader(json));
+        JsonParser stream = factory.createParser(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        for (JsonParser parser : new JsonParser[] { reader, stream }) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.VALUE_NUMBER, parser.next());
+            assertEquals(Event.END_OBJECT, parser.next());
+            assertTrue(parser.hasNext());
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertEquals(Event.VALUE_TRUE, parser.next());
+            assertEquals(Event.END_ARRAY, parser.next());
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Event.END_OBJECT, parser.next());
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertEquals(Event.END_ARRAY, parser.next());
+            assertFalse(parser.hasNext());
+            parser.close();
+        }
+    }
+
+    public void testMultipleDocumentsDisabled() {
+        JsonParser parser = Json.createParser(new StringReader("{}{}"));
+        parser.next();
+        parser.next();
+        try {
+            parser.hasNext();
+            fail("Trailing text should fail without multiple documents");
+        } catch (JsonParsingException expected) {
+            // no-op
+        }
+        parser.close();
+    }
+
+    public void testValueStream() {
+        JsonParserFactory factory = Json.createParserFactory(
+                Collections.singletonMap(JsonConfig.MULTIPLE_DOCUMENTS, true));
+        JsonParser parser = factory.createParser(new StringReader(
+                "{\"a\":1}\n{\"a\":2}\n{\"a\":3}\n"));
+        int sum = parser.getValueStream()
+                .mapToInt(v -> ((JsonObject)v).getInt("a")).sum();
+        assertEquals(6, sum);
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void testFeedParserByteByByte() {
+        String json = "{\"a\":[1, -2.5e3, true, false, null], \"\u00e9\\u0041\":\"\ud83d\ude00 x\",\r\n\"c\":{}}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        JsonParser expected = Json.createParser(new StringReader(json));
+        JsonFeedParser parser = new JsonProviderImpl().createFeedParser(null);
+        int fed = 0;
+        while (parser.hasNext()) {
+            Event event = parser.next();
+            if (event == null) {
+                if (fed < bytes.length) {
+                    parser.feed(ByteBuffer.wrap(bytes, fed++, 1));
+                } else {
+                    parser.endOfInput();
+                }
+                continue;
+            }
+            assertEquals(expected.next(), event);
+            if (event == Event.KEY_NAME || event == Event.VALUE_STRING || event == Event.VALUE_NUMBER) {
+                assertEquals(expected.getString(), parser.getString());
+            }
+            assertEquals(expected.getLocation().getStreamOffset(), parser.getLocation().getStreamOffset());
+        }
+        assertFalse(expected.hasNext());
+        parser.close();
+        expected.close();
+    }
+
+    public void testFeedParserLongTokens() {
+        // Tokens of MBs that are fed in small chunks
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 4 << 20) {
+            text.append("abc \u00e9\u20ac\\\"\\u0041\\n\ud83d\ude00 ");
+        }
+        StringBuilder number = new StringBuilder("-1");
+        while (number.length() < 1 << 20) {
+            number.append("1234567890");
+        }
+        number.append(".5e-3");
+        StringBuilder json = new StringBuilder("[\"").append(text).append("\",")
+                .append(number);
+        while (json.length() < 6 << 20) {
+            json.append(" \r\n\t");
+        }
+        json.append(",true]");
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        JsonFeedParser parser = new JsonProviderImpl().createFeedParser(null);
+        JsonParser expected = Json.createParser(new StringReader(json.toString()));
+        int fed = 0;
+        while (parser.hasNext()) {
+            Event event = parser.next();
+            if (event == null) {
+                if (fed < bytes.length) {
+                    int len = Math.min(1024, bytes.length - fed);
+                    parser.feed(ByteBuffer.wrap(bytes, fed, len));
+                    fed += len;
+                } else {
+                    parser.endOfInput();
+                }
+                continue;
+            }
+            assertEquals(expected.next(), event);
+            if (event == Event.VALUE_STRING || event == Event.VALUE_NUMBER) {
+                assertEquals(expected.getString(), parser.getString());
+            }
+            assertEquals(expected.getLocation().getStreamOffset(), parser.getLocation().getStreamOffset());
+        }
+        assertFalse(expected.hasNext());
+        parser.close();
+        expected.close();
+    }
+
+    public void testFeedParserNumberAtEnd() {
+        JsonFeedParser parser = new JsonProviderImpl().createFeedParser(null);
+        parser.feed(ByteBuffer.wrap("[12".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertNull(parser.next());
+        parser.feed(ByteBuffer.wrap("34]".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Event.VALUE_NUMBER, parser.next());
+        assertEquals(1234, parser.getInt());
+        assertEquals(Event.END_ARRAY, parser.next());
+        assertTrue(parser.hasNext());
+        assertNull(parser.next());
+        parser.endOfInput();
+        assertFalse(parser.hasNext());
+        try {
+            parser.feed(ByteBuffer.wrap(new byte[1]));
+            fail("Input cannot be fed after endOfInput()");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.close();
+    }
+
+    public void testFeedParserGetObject() {
+        JsonFeedParser parser = new JsonProviderImpl().createFeedParser(null);
+        parser.feed(ByteBuffer.wrap("{\"a\":[1,".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Event.START_OBJECT, parser.next());
+        try {
+            parser.getObject();
+            fail("getObject() needs the complete object");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        parser.feed(ByteBuffer.wrap("2]}".getBytes(StandardCharsets.UTF_8)));
+        parser.endOfInput();
+        assertEquals(Json.createObjectBuilder()
+                .add("a", Json.createArrayBuilder().add(1).add(2)).build(), parser.getObject());
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void testFeedParserMultipleDocuments() {
+        JsonFeedParser parser = new JsonProviderImpl().createFeedParser(
+                Collections.singletonMap(JsonConfig.MULTIPLE_DOCUMENTS, true));
+        parser.feed(ByteBuffer.wrap("{}\n[".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(Event.END_OBJECT, parser.next());
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertNull(parser.next());
+        parser.feed(ByteBuffer.wrap("]\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Event.END_ARRAY, parser.next());
+        assertTrue(parser.hasNext());
+        parser.endOfInput();
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void testGetLong() {
+        String[] numbers = { "0", "-0", "123456789012345678", "-123456789012345678",
+                "999999999999999999", "-999999999999999999", "9223372036854775807",
+                "-9223372036854775808", "12345678901234567890", "1.5", "1e3" };
+        for (String number : numbers) {
+            JsonParser parser = Json.createParser(new StringReader("[" + number + "]"));
+            parser.next();
+            assertEquals(Event.VALUE_NUMBER, parser.next());
+            assertEquals(number, new BigDecimal(number).longValue(), parser.getLong());
+            parser.close();
+        }
+    }
+
+    public void testGetDouble() {
+        String[] numbers = { "0", "-0", "0.0", "-0.0", "1", "-1.5", "0.1", "3.141592653589793",
+                "1e22", "1e23", "1.7976931348623157e308", "4.9e-324", "2.2250738585072014E-308",
+                "123456789012345678", "1234567890123456789012", "9007199254740993",
+                "0.30000000000000004", "1e-400", "1e400", "123.456e-7", "0.00001",
+                "1234567890.0987654321" };
+        for (String number : numbers) {
+            assertEquals(number, new BigDecimal(number).doubleValue(), getDouble(number));
+        }
+        Random r = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            String number = (r.nextBoolean() ? "-" : "") + r.nextInt(1000000) + "."
+                    + r.nextInt(1000000000) + "e" + (r.nextInt(60) - 30);
+            assertEquals(number, new BigDecimal(number).doubleValue(), getDouble(number));
+        }
+    }
+
+    public void testPointerValues() throws Exception {
+        String json = "{\"a\": {\"b\": [10, {\"c\": true}, [1, 2]], \"d\": null},"
+                + " \"e\": \"x\", \"a/b\": 1, \"\": {\" \": 2}}";
+        JsonObject object = Json.createReader(new StringReader(json)).readObject();
+        String[] strings = { "", "/a", "/a/b", "/a/b/0", "/a/b/1/c", "/a/b/2/1", "/a/d",
+                "/e", "/a~1b", "/", "// " };
+        JsonPointer[] pointers = new JsonPointer[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            pointers[i] = new JsonPointer(strings[i]);
+        }
+        JsonValue[] values = JsonPointer.getValues(Json.createParser(new StringReader(json)), pointers);
+        for (int i = 0; i < strings.length; i++) {
+            assertEquals(strings[i], pointers[i].getValue(object), values[i]);
+            JsonParser parser = Json.createParser(new StringReader(json));
+            assertEquals(strings[i], values[i], pointers[i].getValue(parser));
+            parser.close();
+        }
+
+        // missing values
+        String[] missing = { "/f", "//", "/a/b/3", "/a/b/-", "/e/x", "/a/b/x", "/a/d/x" };
+        for (String pointer : missing) {
+            JsonParser parser = Json.createParser(new StringReader(json));
+            assertNull(pointer, JsonPointer.getValues(parser, new JsonPointer(pointer))[0]);
+            parser.close();
+            try {
+                new JsonPointer(pointer).getValue(Json.createParser(new StringReader(json)));
+                fail("Expected JsonException for " + pointer);
+            } catch (JsonException expected) {
+                // no-op
+            }
+        }
+    }
+
+    public void testPointerValuesPartialRead() throws Exception {
+        // the parser stops when all the values are found
+        JsonParser parser = Json.createParser(new StringReader(
+                "[{\"id\": 1, \"tags\": [\"a\", \"b\"]}, {\"id\": 2}, {\"id\": 3}]"));
+        JsonValue[] values = JsonPointer.getValues(parser,
+                new JsonPointer("/1/id"), new JsonPointer("/0/tags/1"));
+        assertEquals(2, ((JsonNumber)values[0]).intValue());
+        assertEquals("b", ((JsonString)values[1]).getString());
+        assertEquals(Event.END_OBJECT, parser.next());
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("id", parser.getString());
+        parser.close();
+    }
+
+    private static double getDouble(String number) {
+        JsonParser parser = Json.createParser(new StringReader("[" + number + "]"));
+        parser.next();
+        assertEquals(Event.VALUE_NUMBER, parser.next());
+        double d = ((JsonParserImpl)parser).getDouble();
+        parser.close();
+        return d;
+    }
+
 }
@@ -0,0 +1,253 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.json.tests;
+
+import junit.framework.TestCase;
+
+import javax.json.*;
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * JsonPatch tests, mostly the examples of RFC 6902
+ */
+public class JsonPatchTest extends TestCase {
+
+    public void testAddObjectMember() {
+        assertPatch("{ \"foo\": \"bar\"}",
+                "[ { \"op\": \"add\", \"path\": \"/baz\", \"value\": \"qux\" } ]",
+                "{ \"foo\": \"bar\", \"baz\": \"qux\" }");
+    }
+
+    public void testAddArrayElement() {
+        assertPatch("{ \"foo\": [ \"bar\", \"baz\" ] }",
+                "[ { \"op\": \"add\", \"path\": \"/foo/1\", \"value\": \"qux\" } ]",
+                "{ \"foo\": [ \"bar\", \"qux\", \"baz\" ] }");
+        assertPatch("{ \"foo\": [\"bar\"] }",
+                "[ { \"op\": \"add\", \"path\": \"/foo/-\", \"value\": [\"abc\", \"def\"] } ]",
+                "{ \"foo\": [\"bar\", [\"abc\", \"def\"]] }");
+    }
+
+    public void testRemove() {
+        assertPatch("{ \"baz\": \"qux\", \"foo\": \"bar\" }",
+                "[ { \"op\": \"remove\", \"path\": \"/baz\" } ]",
+                "{ \"foo\": \"bar\" }");
+        assertPatch("{ \"foo\": [ \"bar\", \"qux\", \"baz\" ] }",
+                "[ { \"op\": \"remove\", \"path\": \"/foo/1\" } ]",
+                "{ \"foo\": [ \"bar\", \"baz\" ] }");
+    }
+
+    public void testReplace() {
+        assertPatch("{ \"baz\": \"qux\", \"foo\": \"bar\" }",
+                "[ { \"op\": \"replace\", \"path\": \"/baz\", \"value\": \"boo\" } ]",
+                "{ \"baz\": \"boo\", \"foo\": \"bar\" }");
+        // the position of the member is kept
+        JsonObject result = new JsonPatch(read("[ { \"op\": \"replace\", \"path\": \"/baz\", \"value\": 1 } ]")
+                .asJsonArray()).apply(read("{ \"baz\": \"qux\", \"foo\": \"bar\" }").asJsonObject());
+        assertEquals("{\"baz\":1,\"foo\":\"bar\"}", result.toString());
+    }
+
+    public void testMove() {
+        assertPatch("{ \"foo\": { \"bar\": \"baz\", \"waldo\": \"fred\" },"
+                        + " \"qux\": { \"corge\": \"grault\" } }",
+                "[ { \"op\": \"move\", \"from\": \"/foo/waldo\", \"path\": \"/qux/thud\" } ]",
+                "{ \"foo\": { \"bar\": \"baz\" }, \"qux\": { \"corge\": \"grault\", \"thud\": \"fred\" } }");
+        assertPatch("{ \"foo\": [ \"all\", \"grass\", \"cows\", \"eat\" ] }",
+                "[ { \"op\": \"move\", \"from\": \"/foo/1\", \"path\": \"/foo/3\" } ]",
+                "{ \"foo\": [ \"all\", \"cows\", \"eat\", \"grass\" ] }");
+        assertPatchFails("{ \"foo\": { \"bar\": 1 } }",
+                "[ { \"op\": \"move\", \"from\": \"/foo\", \"path\": \"/foo/bar/baz\" } ]");
+    }
+
+    public void testCopy() {
+        // the copy is not changed by the later operations
+        assertPatch("{ \"foo\": { \"bar\": 1 } }",
+                "[ { \"op\": \"add\", \"path\": \"/foo/baz\", \"value\": 2 },"
+                        + " { \"op\": \"copy\", \"from\": \"/foo\", \"path\": \"/qux\" },"
+                        + " { \"op\": \"remove\", \"path\": \"/foo/bar\" } ]",
+                "{ \"foo\": { \"baz\": 2 }, \"qux\": { \"bar\": 1, \"baz\": 2 } }");
+    }
+
+    public void testTest() {
+        assertPatch("{ \"baz\": \"qux\", \"foo\": [ \"a\", 2, \"c\" ] }",
+                "[ { \"op\": \"test\", \"path\": \"/baz\", \"value\": \"qux\" },"
+                        + " { \"op\": \"test\", \"path\": \"/foo/1\", \"value\": 2 } ]",
+                "{ \"baz\": \"qux\", \"foo\": [ \"a\", 2, \"c\" ] }");
+        assertPatchFails("{ \"baz\": \"qux\" }",
+                "[ { \"op\": \"test\", \"path\": \"/baz\", \"value\": \"bar\" } ]");
+    }
+
+    public void testErrors() {
+        assertPatchFails("{ \"foo\": \"bar\" }",
+                "[ { \"op\": \"add\", \"path\": \"/baz/bat\", \"value\": \"qux\" } ]");
+        assertPatchFails("{ \"foo\": \"bar\" }",
+                "[ { \"op\": \"remove\", \"path\": \"/baz\" } ]");
+        assertPatchFails("{ \"foo\": [1] }",
+                "[ { \"op\": \"add\", \"path\": \"/foo/2\", \"value\": 1 } ]");
+        assertPatchFails("{ \"foo\": [1] }",
+                "[ { \"op\": \"replace\", \"path\": \"/foo/1\", \"value\": 1 } ]");
+        // not an array index, and an index with a leading zero
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"add\", \"path\": \"/a/x\", \"value\": 3 } ]");
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"replace\", \"path\": \"/a/x\", \"value\": 3 } ]");
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"remove\", \"path\": \"/a/x\" } ]");
+        assertPatchFails("{ \"a\": [[1], 2] }",
+                "[ { \"op\": \"add\", \"path\": \"/a/x/0\", \"value\": 3 } ]");
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"test\", \"path\": \"/a/x\", \"value\": 1 } ]");
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"add\", \"path\": \"/a/01\", \"value\": 3 } ]");
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"replace\", \"path\": \"/a/01\", \"value\": 3 } ]");
+        assertPatchFails("{ \"a\": [1, 2] }",
+                "[ { \"op\": \"copy\", \"from\": \"/a/00\", \"path\": \"/b\" } ]");
+        try {
+            new JsonPatch(read("[ { \"op\": \"invalid\", \"path\": \"/foo\" } ]").asJsonArray());
+            fail("Expected JsonException");
+        } catch (JsonException expected) {
+            // no-op
+        }
+        try {
+            new JsonPatch(read("[ { \"op\": \"add\", \"path\": \"/foo\" } ]").asJsonArray());
+            fail("Expected JsonException");
+        } catch (JsonException expected) {
+            // no-op
+        }
+    }
+
+    public void testManyOperations() {
+        // same result as the JsonPointer operations one at a time
+        JsonArrayBuilder patch = Json.createArrayBuilder();
+        JsonObject expected = read("{ \"a\": { \"b\": [] }, \"c\": {} }").asJsonObject();
+        JsonObject target = expected;
+        for (int i = 0; i < 200; i++) {
+            String path = (i % 2 == 0) ? "/a/b/-" : "/c/k" + (i % 7);
+            JsonValue value = Json.createArrayBuilder().add(i).build().get(0);
+            patch.add(Json.createObjectBuilder().add("op", "add").add("path", path).add("value", value));
+            expected = new JsonPointer(path).add(expected, value);
+        }
+        patch.add(Json.createObjectBuilder().add("op", "remove").add("path", "/a/b/0"));
+        expected = new JsonPointer("/a/b/0").remove(expected);
+
+        JsonObject result = new JsonPatch(patch.build()).apply(target);
+        assertEquals(expected, result);
+        assertEquals(expected.toString(), result.toString());
+        assertEquals(read("{ \"a\": { \"b\": [] }, \"c\": {} }"), target);
+    }
+
+    public void testDiff() {
+        String[][] examples = {
+            { "{\"a\":1,\"b\":[1,2,3,4,5],\"c\":{\"d\":\"x\"}}",
+              "{\"a\":2,\"b\":[1,3,4,6,5,7],\"c\":{\"e\":\"x\"},\"f/~\":null}" },
+            { "[1,[2,3],{\"a\":[]}]", "[[2,4],{\"a\":[1]},1]" },
+            { "{\"a\":[]}", "{\"a\":{}}" },
+            { "[]", "[1,2,3]" },
+            { "[1,2,3]", "[]" },
+        };
+        for (String[] example : examples) {
+            JsonStructure source = read(example[0]);
+            JsonStructure target = read(example[1]);
+            assertEquals(example[1], target, JsonPatch.diff(source, target).apply(source));
+            assertEquals(example[0], source, JsonPatch.diff(target, source).apply(target));
+        }
+        assertTrue(JsonPatch.diff(read(examples[0][0]), read(examples[0][0])).toJsonArray().isEmpty());
+    }
+
+    public void testDiffChangedElement() {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(Json.createObjectBuilder().add("id", i).add("name", "n" + i));
+        }
+        JsonArray source = builder.build();
+        JsonArray target = new JsonPointer("/500/name").replace(source,
+                Json.createArrayBuilder().add("changed").build().get(0));
+        JsonArray patch = JsonPatch.diff(source, target).toJsonArray();
+        assertEquals(read("[{\"op\":\"replace\",\"path\":\"/500/name\",\"value\":\"changed\"}]"), patch);
+    }
+
+    public void testDiffRandom() {
+        Random random = new Random(7);
+        for (int n = 0; n < 200; n++) {
+            JsonStructure source = randomArray(random, 3);
+            JsonStructure target = randomArray(random, 3);
+            assertEquals(target, JsonPatch.diff(source, target).apply(source));
+        }
+    }
+
+    private static JsonArray randomArray(Random random, int depth) {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        int size = random.nextInt(6);
+        for (int i = 0; i < size; i++) {
+            int kind = random.nextInt(depth > 0 ? 3 : 1);
+            if (kind == 0) {
+                builder.add(random.nextInt(3));
+            } else if (kind == 1) {
+                builder.add(randomArray(random, depth - 1));
+            } else {
+                builder.add(Json.createObjectBuilder().add("k" + random.nextInt(2), randomArray(random, depth - 1)));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void assertPatch(String target, String patch, String expected) {
+        JsonStructure result = new JsonPatch(read(patch).asJsonArray()).apply(read(target));
+        assertEquals(read(expected), result);
+    }
+
+    private static void assertPatchFails(String target, String patch) {
+        try {
+            new JsonPatch(read(patch).asJsonArray()).apply(read(target));
+            fail("Expected JsonException for " + patch);
+        } catch (JsonException expected) {
+            // no-op
+        }
+    }
+
+    private static JsonStructure read(String json) {
+        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+            return reader.read();
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.fail;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
 
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -47,6 +48,8 @@ public class JsonPointerTest {
                  {new JsonPointer("/ "), rfc6901Example.getJsonNumber(" "), null},
                  {new JsonPointer("/notexists"), null, JsonException.class},
                  {new JsonPointer("/s/t"), null, NumberFormatException.class},
+                 {new JsonPointer("/foo/2"), null, IndexOutOfBoundsException.class},
+                 {new JsonPointer("/foo/-"), null, IndexOutOfBoundsException.class},
                  {new JsonPointer("/o"), JsonObject.NULL, null}
            });
     }
@@ -77,6 +80,24 @@ public class JsonPointerTest {
         }
     }
 
+    @Test
+    public void shouldEvaluateCompiledJsonPointerExpressions() {
+        JsonPointer compiled = JsonPointer.compile(pointer.toString());
+        assertThat(compiled, is(pointer));
+        assertThat(JsonPointer.compile(pointer.toString()), sameInstance(compiled));
+        try {
+            JsonValue result = compiled.getValue(rfc6901Example);
+            assertThat(result, is(expected));
+            assertThat(expectedException, nullValue());
+        } catch(Exception e) {
+            if(expectedException == null) {
+                fail(e.getMessage());
+            } else {
+                assertThat(e, instanceOf(expectedException));
+            }
+        }
+    }
+
     static JsonObject readRfc6901Example() throws Exception {
         Reader rfc6901Reader = new InputStreamReader(JsonReaderTest.class.getResourceAsStream("/rfc6901.json"));
         JsonReader reader = Json.createReader(rfc6901Reader);
@@ -42,9 +42,12 @@ package org.glassfish.json.tests;
 
 import junit.framework.TestCase;
 import org.glassfish.json.api.BufferPool;
+import org.glassfish.json.api.JsonConfig;
 
 import javax.json.*;
+import javax.json.stream.JsonParsingException;
 import java.io.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -175,4 +178,132 @@ public class JsonReaderTest extends TestCase {
         }
     }
 
+    public void testMultipleDocuments() throws Exception {
+        JsonReaderFactory factory = Json.createReaderFactory(
+                Collections.singletonMap(JsonConfig.MULTIPLE_DOCUMENTS, true));
+        String json = "{\"a\":1}\n{\"a\":2}\n[3]\n";
+        JsonReader reader = factory.createReader(new StringReader(json));
+        assertEquals(1, reader.readObject().getInt("a"));
+        assertEquals(2, reader.read().asJsonObject().getInt("a"));
+        assertEquals(3, reader.readArray().getInt(0));
+        assertNull(reader.read());
+        reader.close();
+
+        reader = factory.createReader(new ByteArrayInputStream(json.getBytes("UTF-8")));
+        JsonObject first = reader.readObject();
+        JsonObject second = reader.readObject();
+        assertEquals(1, first.getInt("a"));
+        assertEquals(2, second.getInt("a"));
+        assertEquals(3, reader.readArray().getInt(0));
+        assertNull(reader.readObject());
+        reader.close();
+    }
+
+    public void testKeyNameTable() throws Exception {
+        JsonReaderFactory factory = Json.createReaderFactory(
+                Collections.singletonMap(JsonConfig.KEY_NAME_TABLE, true));
+        assertEquals(Collections.singletonMap(JsonConfig.KEY_NAME_TABLE, true),
+                factory.getConfigInUse());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append('k');
+        }
+        String longKey = sb.toString();
+        String json = "[{\"id\":1, \"name\":\"a\", \"" + longKey + "\":true},"
+                + " {\"id\":2, \"name\":\"b\", \"" + longKey + "\":false}]";
+
+        JsonArray array1 = factory.createReader(new StringReader(json)).readArray();
+        JsonArray array2 = factory.createReader(
+                new ByteArrayInputStream(json.getBytes("UTF-8"))).readArray();
+        assertEquals(array1, array2);
+        String id = array1.getJsonObject(0).keySet().iterator().next();
+        assertEquals("id", id);
+        assertSame(id, array1.getJsonObject(1).keySet().iterator().next());
+        assertSame(id, array2.getJsonObject(0).keySet().iterator().next());
+        assertFalse(array1.getJsonObject(1).getBoolean(longKey));
+
+        // many distinct keys share the bounded table
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        for (int i = 0; i < 5000; i++) {
+            builder.add("key" + i, i);
+        }
+        JsonObject expected = builder.build();
+        JsonObject actual = factory.createReader(new StringReader(expected.toString())).readObject();
+        assertEquals(expected, actual);
+    }
+
+    public void testLazyReading() throws Exception {
+        JsonReaderFactory factory = Json.createReaderFactory(
+                Collections.singletonMap(JsonConfig.LAZY_READING, true));
+        assertEquals(Collections.singletonMap(JsonConfig.LAZY_READING, true),
+                factory.getConfigInUse());
+        String json = "{\"a\": [1, 2, 3], \"b\": {\"c\": \"x]}\\\"\", \"d\": [{}, [], [1.5, -2]]},"
+                + " \"e\": null, \"f\": true, \"g\": 12345678901234567890}";
+
+        JsonObject eager = Json.createReader(new StringReader(json)).readObject();
+        JsonObject lazy1 = factory.createReader(new StringReader(json)).readObject();
+        JsonObject lazy2 = factory.createReader(
+                new ByteArrayInputStream(json.getBytes("UTF-16"))).readObject();
+        assertEquals(eager, lazy1);
+        assertEquals(lazy1, eager);
+        assertEquals(eager.hashCode(), lazy2.hashCode());
+        assertEquals(eager.toString(), lazy2.toString());
+        assertEquals("x]}\"", lazy1.getJsonObject("b").getString("c"));
+        assertEquals(-2, lazy1.getJsonObject("b").getJsonArray("d").getJsonArray(2).getInt(1));
+        assertEquals(JsonValue.ValueType.ARRAY, lazy1.get("a").getValueType());
+
+        JsonReader reader = factory.createReader(new StringReader(json));
+        reader.read();
+        try {
+            reader.read();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // no-op
+        }
+        try {
+            factory.createReader(new StringReader("[]")).readObject();
+            fail("Expected JsonException");
+        } catch (JsonException expected) {
+            // no-op
+        }
+    }
+
+    public void testLazyReadingMultipleDocuments() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(JsonConfig.LAZY_READING, true);
+        config.put(JsonConfig.MULTIPLE_DOCUMENTS, true);
+        JsonReader reader = Json.createReaderFactory(config).createReader(
+                new StringReader("{\"a\":[1]}\n[true, {\"b\":{}}]\n"));
+        assertEquals(Json.createObjectBuilder().add("a", Json.createArrayBuilder().add(1)).build(),
+                reader.readObject());
+        JsonArray array = reader.readArray();
+        assertTrue(array.getBoolean(0));
+        assertTrue(array.getJsonObject(1).getJsonObject("b").isEmpty());
+        assertNull(reader.read());
+        reader.close();
+    }
+
+    public void testLazyReadingInvalidValue() throws Exception {
+        JsonReader reader = Json.createReaderFactory(
+                Collections.singletonMap(JsonConfig.LAZY_READING, true)).createReader(
+                new StringReader("{\"a\": 1, \"b\": [1, tru]}"));
+        // only the structure is checked when it is read
+        JsonObject object = reader.readObject();
+        assertEquals(1, object.getInt("a"));
+        try {
+            object.getJsonArray("b").size();
+            fail("Expected JsonParsingException");
+        } catch (JsonParsingException expected) {
+            // no-op
+        }
+        // the top level is parsed when it is read
+        try {
+            Json.createReaderFactory(Collections.singletonMap(JsonConfig.LAZY_READING, true))
+                    .createReader(new StringReader("{\"a\": tru, \"b\": [1]}")).readObject();
+            fail("Expected JsonParsingException");
+        } catch (JsonParsingException expected) {
+            // no-op
+        }
+    }
+
 }
@@ -67,6 +67,16 @@ public class JsonStringTest extends TestCase {
         escapedString("\f\babcdef\tb\rc\\\"\ftesting1234");
         escapedString("\u0000\u00ff");
         escapedString("abc\"\\/abc");
+        escapedString("abc\u0001\u001fabc");
+        escapedString("\u00e9\u4e2d\ud83d\ude00");
+    }
+
+    public void testToStringEscapes() throws Exception {
+        JsonArray array = Json.createArrayBuilder()
+                .add("abc").add("a\"b\\c").add("\u0001\u001f").build();
+        assertEquals("\"abc\"", array.get(0).toString());
+        assertEquals("\"a\\\"b\\\\c\"", array.get(1).toString());
+        assertEquals("\"\\u0001\\u001f\"", array.get(2).toString());
     }
 
     void escapedString(String str) throws Exception {
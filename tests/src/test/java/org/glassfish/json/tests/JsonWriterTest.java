@@ -41,11 +41,17 @@
 package org.glassfish.json.tests;
 
 import javax.json.*;
+import javax.json.stream.JsonGenerator;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import junit.framework.TestCase;
+import org.glassfish.json.api.JsonConfig;
 
 /**
  * @author Jitendra Kotamraju
@@ -190,4 +196,90 @@ public class JsonWriterTest extends TestCase {
             closed = true;
         }
     }
+
+    public void testMultipleDocuments() throws Exception {
+        JsonWriterFactory factory = Json.createWriterFactory(
+                Collections.singletonMap(JsonConfig.MULTIPLE_DOCUMENTS, true));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonWriter writer = factory.createWriter(baos);
+        writer.write(Json.createObjectBuilder().add("a", 1).build());
+        writer.writeArray(Json.createArrayBuilder().add(2).build());
+        writer.close();
+        assertEquals("{\"a\":1}\n[2]\n", baos.toString("UTF-8"));
+
+        StringWriter sw = new StringWriter();
+        writer = factory.createWriter(sw);
+        writer.close();
+        assertEquals("", sw.toString());
+    }
+
+    public void testSerializedTextCache() throws Exception {
+        JsonObject config = Json.createObjectBuilder()
+                .add("name", "a\"b")
+                .add("values", Json.createArrayBuilder().add(1).add(2.5).add(true))
+                .add("nested", Json.createObjectBuilder().add("x", JsonValue.NULL))
+                .build();
+        JsonObject response = Json.createObjectBuilder()
+                .add("id", 1)
+                .add("config", config)
+                .add("list", Json.createArrayBuilder().add(config).add(config))
+                .build();
+        String expected = "{\"id\":1,\"config\":" + config + ",\"list\":["
+                + config + "," + config + "]}";
+        // toString() alone doesn't keep the text
+        assertNotSame(config.toString(), config.toString());
+
+        JsonWriterFactory factory = Json.createWriterFactory(
+                Collections.singletonMap(JsonConfig.SERIALIZED_TEXT_CACHE, true));
+        for (int i = 0; i < 3; i++) {
+            StringWriter sw = new StringWriter();
+            try (JsonWriter writer = factory.createWriter(sw)) {
+                writer.writeObject(response);
+            }
+            assertEquals(expected, sw.toString());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (JsonWriter writer = factory.createWriter(baos)) {
+                writer.write(config);
+            }
+            assertEquals(config.toString(), baos.toString("UTF-8"));
+        }
+        assertSame(config.toString(), config.toString());
+
+        // The kept text is not used for pretty printing
+        Map<String, Object> prettyConfig = new HashMap<>();
+        prettyConfig.put(JsonConfig.SERIALIZED_TEXT_CACHE, true);
+        prettyConfig.put(JsonGenerator.PRETTY_PRINTING, true);
+        StringWriter sw = new StringWriter();
+        try (JsonWriter writer = Json.createWriterFactory(prettyConfig).createWriter(sw)) {
+            writer.writeObject(response);
+        }
+        assertTrue(sw.toString().contains("\n"));
+        try (JsonReader reader = Json.createReader(new StringReader(sw.toString()))) {
+            assertEquals(response, reader.readObject());
+        }
+
+        // Only one text can be written without the multiple documents
+        try (JsonWriter writer = factory.createWriter(new StringWriter())) {
+            writer.writeObject(config);
+            writer.writeObject(config);
+            fail("Expected IllegalStateException for the second text");
+        } catch (IllegalStateException expected2) {
+            // pass
+        }
+    }
+
+    public void testSerializedTextCacheMultipleDocuments() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(JsonConfig.SERIALIZED_TEXT_CACHE, true);
+        config.put(JsonConfig.MULTIPLE_DOCUMENTS, true);
+        JsonArray array = Json.createArrayBuilder().add("a").add(1).build();
+        array.toString();
+        StringWriter sw = new StringWriter();
+        try (JsonWriter writer = Json.createWriterFactory(config).createWriter(sw)) {
+            writer.writeArray(array);
+            writer.writeArray(array);
+        }
+        assertEquals("[\"a\",1]\n[\"a\",1]\n", sw.toString());
+    }
 }